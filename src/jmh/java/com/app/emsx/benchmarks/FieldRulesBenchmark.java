@@ -0,0 +1,101 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.common.validation.FieldRules;
+import com.app.emsx.exceptions.BusinessRuleException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FieldRulesBenchmark
+ * -----------------------------------------------------
+ * ✔ Costo por request de las reglas de campos de Patient/Doctor
+ * ✔ legacy = código previo (String.matches + split/join), shared = FieldRules
+ *
+ * mvn -Pjmh -DskipTests compile exec:exec -Djmh.args="FieldRulesBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldRulesBenchmark {
+
+    @Param({"maria.lopez@clinica.com", "ab@x.io", "user name@mail"})
+    public String email;
+
+    public String firstName = "María";
+    public String lastName = "López";
+    public String phone = "98765432";
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        try {
+            LegacyRules.person(firstName, lastName, phone, email);
+            bh.consume(true);
+        } catch (BusinessRuleException e) {
+            bh.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void shared(Blackhole bh) {
+        try {
+            FieldRules.person(firstName, lastName, phone, email);
+            bh.consume(true);
+        } catch (BusinessRuleException e) {
+            bh.consume(e);
+        }
+    }
+
+    // Copia literal de las validaciones que tenían PatientServiceImpl/DoctorServiceImpl
+    static final class LegacyRules {
+
+        static void person(String firstName, String lastName, String phone, String rawEmail) {
+            if (firstName != null) {
+                if (firstName.trim().length() < 2) {
+                    throw new BusinessRuleException("El nombre debe tener mínimo 2 letras");
+                }
+                if (firstName.length() > 25) {
+                    throw new BusinessRuleException("El nombre no puede tener más de 25 letras");
+                }
+            }
+            if (lastName != null && lastName.length() > 20) {
+                throw new BusinessRuleException("El apellido no puede tener más de 20 letras");
+            }
+            if (phone != null && phone.length() != 8) {
+                throw new BusinessRuleException("El teléfono debe tener exactamente 8 dígitos");
+            }
+            if (rawEmail != null) {
+                String email = rawEmail.trim();
+                if (!email.matches("^[a-zA-Z0-9._]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$")) {
+                    throw new BusinessRuleException("El email debe contener solo letras, números, puntos y guiones bajos");
+                }
+                String[] parts = email.split("@");
+                if (parts.length == 2) {
+                    String localPart = parts[0];
+                    String domainPart = parts[1];
+                    String[] domainParts = domainPart.split("\\.");
+                    if (localPart.length() < 4) {
+                        throw new BusinessRuleException("La parte antes del @ debe tener mínimo 4 caracteres");
+                    }
+                    if (localPart.length() > 30) {
+                        throw new BusinessRuleException("La parte antes del @ debe tener máximo 30 caracteres");
+                    }
+                    if (domainParts.length >= 2) {
+                        String domain = String.join(".", java.util.Arrays.copyOf(domainParts, domainParts.length - 1));
+                        if (domain.length() > 20) {
+                            throw new BusinessRuleException("El dominio (después del @) debe tener máximo 20 caracteres");
+                        }
+                        String extension = domainParts[domainParts.length - 1];
+                        if (extension.length() > 20) {
+                            throw new BusinessRuleException("La extensión (después del último punto) debe tener máximo 20 caracteres");
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.entities.User;
+import com.app.emsx.security.JwtService;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtBenchmark
+ * -----------------------------------------------------
+ * ✔ Emisión (login) y lectura (cada request autenticado) de tokens JWT
+ * ✔ Clave HMAC aleatoria: no necesita JWT_SECRET
+ *
+ * mvn -Pjmh -DskipTests compile exec:exec -Djmh.args="JwtBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        jwtService = new JwtService();
+        set(jwtService, "key", Keys.hmacShaKeyFor(secret));
+        set(jwtService, "expiration", Duration.ofHours(24));
+
+        user = User.builder()
+                .id(1L).firstname("Admin").lastname("Clínica")
+                .email("admin@clinica.com").password("{noop}x").role("ROLE_ADMIN")
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,86 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.app.emsx.dtos.patient.PatientRequest;
+import com.app.emsx.dtos.patient.PatientResponse;
+import com.app.emsx.entities.Appointment;
+import com.app.emsx.entities.Doctor;
+import com.app.emsx.entities.Patient;
+import com.app.emsx.mappers.AppointmentMapper;
+import com.app.emsx.mappers.PatientMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapperBenchmark
+ * -----------------------------------------------------
+ * ✔ Costo de los mappers en las rutas de escritura (entidad ↔ DTO)
+ *
+ * mvn -Pjmh -DskipTests compile exec:exec -Djmh.args="MapperBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final AppointmentMapper appointmentMapper = Mappers.getMapper(AppointmentMapper.class);
+    private final PatientMapper patientMapper = Mappers.getMapper(PatientMapper.class);
+
+    private Appointment appointment;
+    private Patient patient;
+    private PatientRequest patientRequest;
+
+    @Setup
+    public void setUp() {
+        patient = new Patient();
+        patient.setId(42L);
+        patient.setFirstName("María");
+        patient.setLastName("López");
+        patient.setEmail("maria.lopez@clinica.com");
+        patient.setPhone("98765432");
+        patient.setAddress("Av. Arequipa 1234, Lima");
+        patient.setDateOfBirth(LocalDate.of(1988, 4, 12));
+
+        Doctor doctor = new Doctor();
+        doctor.setId(7L);
+        doctor.setFirstName("Carlos");
+        doctor.setLastName("Ramírez");
+
+        appointment = new Appointment();
+        appointment.setId(1001L);
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setDate(LocalDate.of(2026, 3, 15));
+        appointment.setTime(LocalTime.of(10, 30));
+        appointment.setReason("Control anual");
+        appointment.setStatus("SCHEDULED");
+
+        patientRequest = PatientRequest.builder()
+                .firstName("María").lastName("López")
+                .email("maria.lopez@clinica.com").phone("98765432")
+                .address("Av. Arequipa 1234, Lima").dateOfBirth("1988-04-12")
+                .build();
+    }
+
+    @Benchmark
+    public AppointmentResponse appointmentToResponse() {
+        return appointmentMapper.toResponse(appointment);
+    }
+
+    @Benchmark
+    public PatientResponse patientToResponse() {
+        return patientMapper.toResponse(patient);
+    }
+
+    @Benchmark
+    public Patient patientToEntity() {
+        return patientMapper.toEntity(patientRequest);
+    }
+}
@@ -0,0 +1,60 @@
+package com.app.emsx.benchmarks;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SerializationBenchmark
+ * -----------------------------------------------------
+ * ✔ Serialización JSON de ApiResponse<List<AppointmentResponse>> (listados de citas)
+ * ✔ ObjectMapper configurado como el de Spring MVC (Jackson2ObjectMapperBuilder y el
+ *   filtro de campos por defecto de WebMvcConfig, sin ?fields=)
+ *
+ * mvn -Pjmh -DskipTests compile exec:exec -Djmh.args="SerializationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    // Página típica, página máxima y listado completo de un día con mucha carga
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+            .build();
+    private ApiResponse<List<AppointmentResponse>> response;
+
+    @Setup
+    public void setUp() {
+        List<AppointmentResponse> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(AppointmentResponse.builder()
+                    .id((long) i)
+                    .patientId(1000L + i).patientName("Paciente " + i + " López")
+                    .doctorId((long) (i % 25)).doctorName("Dr. Carlos Ramírez")
+                    .date("2026-03-" + (10 + i % 20)).time(String.format("%02d:%02d", 8 + i % 10, (i % 4) * 15))
+                    .reason("Control de rutina").status(i % 5 == 0 ? "CANCELLED" : "SCHEDULED")
+                    .build());
+        }
+        response = ApiResponse.ok("Citas obtenidas correctamente", items);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
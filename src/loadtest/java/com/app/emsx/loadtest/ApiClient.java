@@ -0,0 +1,117 @@
+package com.app.emsx.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * ApiClient
+ * -----------------------------------------------------
+ * ✔ Cliente HTTP de la API (JSON + Bearer) para el load test
+ * ✔ Cada llamada se mide y se registra en el LatencyRecorder bajo su endpoint
+ *   (las llamadas del seed usan recorder = null y no se miden)
+ */
+final class ApiClient {
+
+    private static final ObjectMapper JSON = Jackson2ObjectMapperBuilder.json().build();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    ApiClient(HttpClient http, String baseUrl, LatencyRecorder recorder) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    ApiClient measuring(LatencyRecorder recorder) {
+        return new ApiClient(http, baseUrl, recorder);
+    }
+
+    record Result(int status, JsonNode body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        // Campo "data" de ApiResponse
+        JsonNode data() {
+            return body.path("data");
+        }
+    }
+
+    Result get(String endpoint, String path, String token) {
+        return send(endpoint, builder(path, token).GET().build());
+    }
+
+    Result post(String endpoint, String path, String token, Object body) {
+        return send(endpoint, builder(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(write(body)))
+                .build());
+    }
+
+    Result postRaw(String path, String token, String contentType, String body) {
+        return send(null, builder(path, token)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Result send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        int status;
+        byte[] bytes;
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            bytes = response.body();
+        } catch (IOException e) {
+            status = 599;
+            bytes = new byte[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 599;
+            bytes = new byte[0];
+        }
+        long elapsed = System.nanoTime() - start;
+        if (recorder != null && endpoint != null) {
+            recorder.record(endpoint, elapsed, status >= 200 && status < 300);
+        }
+        return new Result(status, read(bytes));
+    }
+
+    private static byte[] write(Object body) {
+        try {
+            return JSON.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JsonNode read(byte[] bytes) {
+        try {
+            return bytes.length == 0 ? JSON.missingNode() : JSON.readTree(bytes);
+        } catch (IOException e) {
+            return JSON.missingNode();
+        }
+    }
+}
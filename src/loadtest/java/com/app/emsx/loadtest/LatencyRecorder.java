@@ -0,0 +1,102 @@
+package com.app.emsx.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LatencyRecorder
+ * -----------------------------------------------------
+ * ✔ Latencias por endpoint ("POST /api/appointments"), una muestra por request
+ * ✔ Cada hilo escribe en su propio buffer (sin contención); se combinan al final
+ * ✔ Reporte: requests, errores, throughput y p50/p95/p99/max en milisegundos
+ * ✔ total(): una sola línea por corrida para comparar configuraciones
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean ok) {
+        samples.computeIfAbsent(endpoint + "@" + Thread.currentThread().getId(), k -> new Samples(endpoint))
+                .add(nanos, ok);
+    }
+
+    String report(double seconds) {
+        Map<String, Samples> merged = merged();
+        Samples total = new Samples("TOTAL");
+        merged.values().forEach(total::addAll);
+
+        StringBuilder sb = new StringBuilder(header());
+        for (Samples s : merged.values()) {
+            sb.append(s.line(seconds));
+        }
+        sb.append(total.line(seconds));
+        return sb.toString();
+    }
+
+    /**
+     * Línea TOTAL con otra etiqueta (comparación entre corridas)
+     */
+    String total(String label, double seconds) {
+        Samples total = new Samples(label);
+        merged().values().forEach(total::addAll);
+        return total.line(seconds);
+    }
+
+    static String header() {
+        return String.format(Locale.ROOT, "%-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    }
+
+    private Map<String, Samples> merged() {
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Samples s : samples.values()) {
+            merged.computeIfAbsent(s.endpoint, Samples::new).addAll(s);
+        }
+        return merged;
+    }
+
+    private static final class Samples {
+        private final String endpoint;
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        private Samples(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void add(long value, boolean ok) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (!ok) errors++;
+        }
+
+        private void addAll(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.nanos[i], true);
+            }
+            errors += other.errors;
+        }
+
+        private String line(double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return String.format(Locale.ROOT, "%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint, count, errors, count / seconds,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        // Percentil por rango más cercano, en ms
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
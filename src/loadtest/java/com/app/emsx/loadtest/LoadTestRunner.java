@@ -0,0 +1,322 @@
+package com.app.emsx.loadtest;
+
+import com.app.emsx.EmsxApplication;
+import com.app.emsx.dtos.appointment.AppointmentRequest;
+import com.app.emsx.dtos.auth.AuthenticationRequest;
+import com.app.emsx.dtos.auth.RegisterRequest;
+import com.app.emsx.dtos.consultation.ConsultationRequest;
+import com.app.emsx.dtos.doctor.DoctorRequest;
+import com.app.emsx.dtos.medicalrecord.MedicalRecordRequest;
+import com.app.emsx.dtos.patient.PatientRequest;
+import com.app.emsx.dtos.specialty.SpecialtyRequest;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * LoadTestRunner
+ * -----------------------------------------------------
+ * ✔ Load test end-to-end en proceso: PostgreSQL embebido + la aplicación completa + clientes HTTP
+ * ✔ Seed por la propia API (usuario, especialidades, doctores, pacientes, historias médicas)
+ * ✔ Escenarios mezclados: login, listados, alta de cita y alta de consulta
+ * ✔ Reporte por endpoint: requests, errores, req/s y p50/p95/p99
+ *
+ * mvn -Ploadtest -DskipTests compile exec:exec -Dloadtest.args="-Dloadtest.users=32 -Dloadtest.duration=60"
+ *
+ * Propiedades (-D):
+ *   loadtest.users=16            usuarios concurrentes (un hilo cada uno)
+ *   loadtest.warmup=5            segundos de calentamiento (no se reportan)
+ *   loadtest.duration=30         segundos medidos
+ *   loadtest.doctors=20          doctores del seed
+ *   loadtest.patients=200        pacientes del seed (≥ doctores)
+ *   loadtest.mix=login:5,list:50,appointment:30,consultation:15   pesos de cada escenario
+ *   loadtest.db-url / loadtest.db-user / loadtest.db-password      BD externa en vez de la embebida
+ *   loadtest.threads=platform    hilos de los requests: platform | virtual | compare (ambos, uno tras otro)
+ *   loadtest.pool-size=max(10, users)   conexiones del pool (fijas para ver el efecto del bulkhead)
+ *   loadtest.bulkhead            fuerza db.bulkhead.enabled (por defecto: activo sólo con hilos virtuales)
+ *
+ * Comparación de hilos bajo alta concurrencia (virtual requiere Java 21):
+ * mvn -Pjava21,loadtest -DskipTests compile exec:exec \
+ *     -Dloadtest.args="-Dloadtest.threads=compare -Dloadtest.users=400 -Dloadtest.pool-size=20"
+ */
+public final class LoadTestRunner {
+
+    private static final String USER_EMAIL = "loadtest@clinica.com";
+    private static final String USER_PASSWORD = "loadtest123";
+    private static final int SPECIALTIES = 5;
+    // Horarios por día en los que se reparten las citas (cada 15 minutos desde las 08:00)
+    private static final int SLOTS_PER_DAY = 40;
+
+    private enum Scenario { LOGIN, LIST, APPOINTMENT, CONSULTATION }
+
+    private final int users = Integer.getInteger("loadtest.users", 16);
+    private final int warmup = Integer.getInteger("loadtest.warmup", 5);
+    private final int duration = Integer.getInteger("loadtest.duration", 30);
+    private final int doctorCount = Integer.getInteger("loadtest.doctors", 20);
+    private final int patientCount = Math.max(doctorCount, Integer.getInteger("loadtest.patients", 200));
+    private final Map<Scenario, Integer> mix = parseMix(System.getProperty("loadtest.mix",
+            "login:5,list:50,appointment:30,consultation:15"));
+    private final String threads = System.getProperty("loadtest.threads", "platform");
+    private final int poolSize = Integer.getInteger("loadtest.pool-size", Math.max(10, users));
+    private final String bulkhead = System.getProperty("loadtest.bulkhead");
+
+    // Prefijo de 3 dígitos por corrida: emails/teléfonos únicos aunque la BD externa se reutilice
+    private int runId;
+    // Secuencia global de citas → (doctor, paciente, día, hora) sin choques de horario
+    private final AtomicLong appointmentSeq = new AtomicLong();
+    private LocalDate firstDay;
+
+    private long[] doctorIds;
+    private long[] patientIds;
+    private long[] medicalRecordIds;
+
+    public static void main(String[] args) throws Exception {
+        int exitCode = new LoadTestRunner().run();
+        System.exit(exitCode);
+    }
+
+    private int run() throws Exception {
+        List<Boolean> modes = switch (threads) {
+            case "platform" -> List.of(false);
+            case "virtual" -> List.of(true);
+            case "compare" -> List.of(false, true);
+            default -> throw new IllegalArgumentException("loadtest.threads: platform | virtual | compare");
+        };
+        if (modes.contains(true) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Los hilos virtuales requieren Java 21 (mvn -Pjava21,loadtest ...)");
+        }
+
+        EmbeddedPostgres embedded = null;
+        String dbUrl = System.getProperty("loadtest.db-url");
+        String dbUser = System.getProperty("loadtest.db-user", "postgres");
+        String dbPassword = System.getProperty("loadtest.db-password", "postgres");
+        if (dbUrl == null) {
+            embedded = EmbeddedPostgres.start();
+            dbUrl = embedded.getJdbcUrl("postgres", "postgres");
+        }
+
+        Map<String, String> totals = new LinkedHashMap<>();
+        try {
+            for (boolean virtual : modes) {
+                String label = virtual ? "virtual" : "platform";
+                System.out.printf(Locale.ROOT, "%n== Hilos %s ==%n", label);
+                totals.put(label, runOnce(dbUrl, dbUser, dbPassword, virtual, label));
+            }
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+
+        if (totals.size() > 1) {
+            System.out.printf(Locale.ROOT, "%n== Comparación (%d usuarios, pool de %d conexiones) ==%n", users, poolSize);
+            System.out.print(LatencyRecorder.header());
+            totals.values().forEach(System.out::print);
+        }
+        return 0;
+    }
+
+    // Una corrida completa (app, seed, calentamiento, medición); devuelve la línea TOTAL
+    private String runOnce(String dbUrl, String dbUser, String dbPassword, boolean virtual, String label) throws Exception {
+        int previousRunId = runId;
+        do {
+            runId = ThreadLocalRandom.current().nextInt(100, 1000);
+        } while (runId == previousRunId);
+        appointmentSeq.set(0);
+        firstDay = LocalDate.now().plusDays(1 + ThreadLocalRandom.current().nextInt(3650));
+
+        // Argumentos de línea de comando: tienen prioridad sobre application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + dbUrl,
+                "--spring.datasource.username=" + dbUser,
+                "--spring.datasource.password=" + dbPassword,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        if (bulkhead != null) {
+            args.add("--db.bulkhead.enabled=" + bulkhead);
+        }
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(EmsxApplication.class).run(args.toArray(String[]::new));
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        try {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newCachedThreadPool())
+                    .build();
+            ApiClient seedClient = new ApiClient(http, "http://localhost:" + port, null);
+
+            long seedStart = System.nanoTime();
+            String token = seed(seedClient, pool);
+            System.out.printf(Locale.ROOT, "Seed: %d especialidades, %d doctores, %d pacientes e historias (%.1f s)%n",
+                    SPECIALTIES, doctorCount, patientCount, (System.nanoTime() - seedStart) / 1e9);
+            System.out.printf(Locale.ROOT, "Carga: %d usuarios, pool de %d conexiones, %d s de calentamiento + %d s medidos, mezcla %s%n",
+                    users, poolSize, warmup, duration, mix);
+
+            drive(seedClient.measuring(new LatencyRecorder()), token, pool, warmup);
+            LatencyRecorder recorder = new LatencyRecorder();
+            double seconds = drive(seedClient.measuring(recorder), token, pool, duration);
+            System.out.println();
+            System.out.print(recorder.report(seconds));
+            return recorder.total(label, seconds);
+        } finally {
+            pool.shutdownNow();
+            app.close();
+        }
+    }
+
+    // ------------------------------------------------------------------ seed
+
+    private String seed(ApiClient api, ExecutorService pool) throws Exception {
+        api.post(null, "/api/auth/register", null, RegisterRequest.builder()
+                .firstname("Load").lastname("Test").email(USER_EMAIL).password(USER_PASSWORD).build());
+        String token = login(api, null);
+
+        long[] specialtyIds = parallel(pool, SPECIALTIES, i -> api.post(null, "/api/specialties", token,
+                SpecialtyRequest.builder().name("Especialidad " + runId + "-" + i).build()));
+        doctorIds = parallel(pool, doctorCount, i -> api.post(null, "/api/doctors", token, DoctorRequest.builder()
+                .firstName("Doctor").lastName("Carga " + i)
+                .email(String.format("lt%ddoc%d@clinica.com", runId, i))
+                .phone(String.format("6%d%04d", runId, i))
+                .specialtyId(specialtyIds[i % specialtyIds.length])
+                .build()));
+        patientIds = parallel(pool, patientCount, i -> api.post(null, "/api/patients", token, PatientRequest.builder()
+                .firstName("Paciente").lastName("Carga " + i)
+                .email(String.format("lt%dpac%d@clinica.com", runId, i))
+                .phone(String.format("7%d%04d", runId, i))
+                .dateOfBirth(LocalDate.of(1950 + i % 60, 1 + i % 12, 1 + i % 28).toString())
+                .build()));
+        medicalRecordIds = parallel(pool, patientCount, i -> api.post(null, "/api/medical-records", token,
+                MedicalRecordRequest.builder().patientId(patientIds[i]).diagnosis("Chequeo general").build()));
+        return token;
+    }
+
+    // Ejecuta count altas en paralelo y devuelve los ids creados (falla si alguna no responde 2xx)
+    private static long[] parallel(ExecutorService pool, int count, IntFunction<ApiClient.Result> call) throws Exception {
+        List<Future<ApiClient.Result>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(pool.submit(() -> call.apply(index)));
+        }
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ApiClient.Result result = futures.get(i).get();
+            if (!result.ok()) {
+                throw new IllegalStateException("Seed falló (HTTP " + result.status() + "): " + result.body());
+            }
+            ids[i] = result.data().path("id").asLong();
+        }
+        return ids;
+    }
+
+    private static String login(ApiClient api, String endpoint) {
+        ApiClient.Result result = api.post(endpoint, "/api/auth/login", null, AuthenticationRequest.builder()
+                .email(USER_EMAIL).password(USER_PASSWORD).build());
+        if (!result.ok()) {
+            throw new IllegalStateException("Login falló (HTTP " + result.status() + "): " + result.body());
+        }
+        return result.body().path("token").asText();
+    }
+
+    // ------------------------------------------------------------------ carga
+
+    // Cada usuario virtual repite escenarios al azar (según la mezcla) hasta el deadline
+    private double drive(ApiClient api, String token, ExecutorService pool, int seconds) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<?>> workers = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            workers.add(pool.submit(() -> {
+                Deque<long[]> pending = new ArrayDeque<>();   // citas propias aún sin consulta: {cita, historia}
+                Random random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    switch (pick(random)) {
+                        case LOGIN -> {
+                            try {
+                                login(api, "POST /api/auth/login");
+                            } catch (IllegalStateException ignored) {
+                                // ya quedó registrado como error
+                            }
+                        }
+                        case LIST -> {
+                            if (random.nextBoolean()) {
+                                api.get("GET /api/appointments", "/api/appointments?size=20", token);
+                            } else {
+                                api.get("GET /api/patients", "/api/patients?size=20&sort=name", token);
+                            }
+                        }
+                        case APPOINTMENT -> createAppointment(api, token, pending);
+                        case CONSULTATION -> {
+                            long[] appointment = pending.poll();
+                            if (appointment == null) {
+                                createAppointment(api, token, pending);
+                                appointment = pending.poll();
+                            }
+                            if (appointment != null) {
+                                api.post("POST /api/consultations", "/api/consultations", token, ConsultationRequest.builder()
+                                        .appointmentId(appointment[0]).medicalRecordId(appointment[1])
+                                        .notes("Paciente estable, control en 30 días").build());
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private void createAppointment(ApiClient api, String token, Deque<long[]> pending) {
+        // n → doctor n % D y horario n / D: un mismo horario nunca repite doctor ni paciente (P ≥ D)
+        long n = appointmentSeq.getAndIncrement();
+        int doctor = (int) (n % doctorCount);
+        int patient = (int) (n % patientCount);
+        long slot = n / doctorCount;
+        LocalDate date = firstDay.plusDays(slot / SLOTS_PER_DAY);
+        LocalTime time = LocalTime.of(8, 0).plusMinutes(15 * (slot % SLOTS_PER_DAY));
+
+        ApiClient.Result result = api.post("POST /api/appointments", "/api/appointments", token, AppointmentRequest.builder()
+                .patientId(patientIds[patient]).doctorId(doctorIds[doctor])
+                .date(date.toString()).time(time.toString())
+                .reason("Control").status("SCHEDULED")
+                .build());
+        if (result.ok()) {
+            pending.add(new long[]{result.data().path("id").asLong(), medicalRecordIds[patient]});
+        }
+    }
+
+    private Scenario pick(Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Scenario, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) return entry.getKey();
+        }
+        return Scenario.LIST;
+    }
+
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String part : value.split(",")) {
+            String[] kv = part.trim().split(":");
+            mix.put(Scenario.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("loadtest.mix debe tener al menos un peso positivo");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,210 @@
+package com.app.emsx.common.batch;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.sqlbudget.SqlBudgetFilter;
+import com.app.emsx.dtos.batch.BatchOperation;
+import com.app.emsx.dtos.batch.BatchResult;
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.security.web.firewall.HttpFirewall;
+import org.springframework.security.web.firewall.RequestRejectedException;
+import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BatchDispatcher
+ * -----------------------------------------------------
+ * ✔ Ejecuta las solicitudes de un lote (/api/batch) contra los controladores existentes:
+ *   cada una pasa por el DispatcherServlet (interceptores, GET condicional, manejo de errores)
+ * ✔ No pasan por la cadena de filtros del contenedor, así que se repite aquí lo que ésta haría:
+ *   StrictHttpFirewall (escapes %2e/%2f/%25, ';', '\', '//', rutas no normalizadas → 409 al lote),
+ *   reglas de URL de Spring Security por solicitud (403 en su resultado) y SqlBudgetFilter
+ * ✔ Autenticación una sola vez: el lote ya pasó por el filtro JWT y el SecurityContext
+ *   se propaga a cada solicitud
+ * ✔ Las solicitudes son lecturas independientes: corren en paralelo en el executor de tareas
+ *   de Spring (spring.task.execution.*; hilos virtuales si están activos)
+ * ✔ Cada resultado lleva su estado y cuerpo; un error en una no afecta a las demás
+ *
+ * Límites: batch.max-requests por lote, batch.timeout para todo el lote (504 a las pendientes) y
+ * batch.max-response-bytes por solicitud (413 sólo a esa: el lote no bufferiza tablas enteras
+ * de ?unpaged=true, que fuera del lote se escriben en streaming).
+ * Métrica: emsx.batch.requests (tamaño de los lotes).
+ */
+@Component
+public class BatchDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    private static final String API_PREFIX = "/api/";
+    private static final String BATCH_PATH = "/api/batch";
+
+    private final HttpFirewall firewall = new StrictHttpFirewall();
+    private final ObjectProvider<DispatcherServlet> dispatcherServlet;
+    private final WebInvocationPrivilegeEvaluator privileges;
+    private final SqlBudgetFilter sqlBudgetFilter;
+    private final AsyncTaskExecutor executor;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int maxRequests;
+    private final Duration timeout;
+    private final int maxResponseBytes;
+
+    public BatchDispatcher(ObjectProvider<DispatcherServlet> dispatcherServlet,
+                           WebInvocationPrivilegeEvaluator privileges,
+                           SqlBudgetFilter sqlBudgetFilter,
+                           @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${batch.max-requests:20}") int maxRequests,
+                           @Value("${batch.timeout:10s}") Duration timeout,
+                           @Value("${batch.max-response-bytes:1MB}") DataSize maxResponseBytes) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.privileges = privileges;
+        this.sqlBudgetFilter = sqlBudgetFilter;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxRequests = maxRequests;
+        this.timeout = timeout;
+        this.maxResponseBytes = Math.toIntExact(maxResponseBytes.toBytes());
+    }
+
+    /**
+     * ✅ Resultados en el mismo orden que las solicitudes
+     */
+    public List<BatchResult> execute(HttpServletRequest batch, List<BatchOperation> operations) {
+        if (operations.size() > maxRequests) {
+            throw new BusinessRuleException("El lote admite como máximo " + maxRequests + " solicitudes");
+        }
+        // Se arman y validan en el hilo del lote: el request original sólo se lee aquí
+        List<SubRequest> requests = operations.stream().map(operation -> prepare(batch, operation)).toList();
+        meterRegistry.summary("emsx.batch.requests").record(operations.size());
+
+        List<String> ids = new ArrayList<>(operations.size());
+        List<Future<BatchResult>> futures = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            String id = operation.getId() != null ? operation.getId() : String.valueOf(i);
+            SubRequest request = requests.get(i);
+            ids.add(id);
+            futures.add(executor.submit(new DelegatingSecurityContextCallable<>(() -> dispatch(id, request))));
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<BatchResult> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            results.add(await(ids.get(i), futures.get(i), deadline));
+        }
+        return results;
+    }
+
+    private SubRequest prepare(HttpServletRequest batch, BatchOperation operation) {
+        if (operation.getMethod() != null && !operation.getMethod().equalsIgnoreCase("GET")) {
+            throw new BusinessRuleException("El lote sólo admite solicitudes GET: " + operation.getMethod() + " " + operation.getPath());
+        }
+        String path = operation.getPath().trim();
+        try {
+            SubRequest request = new SubRequest(batch, path, operation.getHeaders());
+            // Mismo firewall que FilterChainProxy; las reglas de prefijo van sobre la ruta ya decodificada
+            firewall.getFirewalledRequest(request);
+            String servletPath = request.getServletPath();
+            if (servletPath.startsWith(API_PREFIX) && !servletPath.startsWith(BATCH_PATH) && !path.contains("#")) {
+                return request;
+            }
+        } catch (IllegalArgumentException | RequestRejectedException e) {
+            log.debug("Ruta rechazada en el lote: {}", path, e);
+        }
+        throw new BusinessRuleException("Ruta no permitida en el lote: " + path);
+    }
+
+    private BatchResult dispatch(String id, SubRequest request) throws Exception {
+        // Reglas de authorizeHttpRequests para esta ruta, con el usuario del lote
+        Authentication user = SecurityContextHolder.getContext().getAuthentication();
+        if (!privileges.isAllowed(request.getContextPath(), request.getServletPath(), request.getMethod(), user)) {
+            return failed(id, HttpStatus.FORBIDDEN, "Acceso denegado");
+        }
+        BufferedResponse response = new BufferedResponse(maxResponseBytes);
+        try {
+            sqlBudgetFilter.doFilter(request, response,
+                    (req, res) -> dispatcherServlet.getObject().service(req, res));
+        } catch (Exception e) {
+            if (!response.overflowed()) throw e;
+        }
+        if (response.overflowed()) {
+            return failed(id, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "La respuesta supera el máximo del lote (" + maxResponseBytes + " bytes); pídela fuera del lote");
+        }
+        String body = response.bodyAsString();
+        return BatchResult.builder()
+                .id(id)
+                .status(response.getStatus())
+                .headers(response.headerValues())
+                .body(body.isEmpty() ? null : asJson(body, response.getContentType()))
+                .build();
+    }
+
+    // Los controladores responden JSON; cualquier otro contenido va como string JSON
+    private String asJson(String body, String contentType) throws JsonProcessingException {
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return body;
+        }
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private BatchResult await(String id, Future<BatchResult> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return failed(id, HttpStatus.GATEWAY_TIMEOUT, "La solicitud no terminó dentro del tiempo del lote");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return failed(id, HttpStatus.SERVICE_UNAVAILABLE, "Lote interrumpido");
+        } catch (ExecutionException e) {
+            log.error("Error no controlado en la solicitud {} del lote", id, e.getCause());
+            return failed(id, HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor");
+        }
+    }
+
+    private BatchResult failed(String id, HttpStatus status, String message) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(ApiResponse.fail(message));
+        } catch (JsonProcessingException e) {
+            body = null;
+        }
+        return BatchResult.builder()
+                .id(id)
+                .status(status.value())
+                .headers(Map.of())
+                .body(body)
+                .build();
+    }
+}
@@ -0,0 +1,435 @@
+package com.app.emsx.common.batch;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SubRequest
+ * -----------------------------------------------------
+ * ✔ Solicitud GET de un lote (/api/batch) despachada al DispatcherServlet en otro hilo
+ * ✔ Ruta, parámetros, headers y atributos propios; del request original copia en el
+ *   constructor (hilo del lote) lo poco que necesita: usuario, locale, cookies, mapping, conexión
+ * ✔ No guarda el request original: una solicitud que sigue corriendo tras el timeout del lote
+ *   no puede leer un request de Tomcat ya reciclado. Lo que no implementa lanza
+ *   UnsupportedOperationException en vez de delegar
+ * ✔ requestURI tal como llegó, servletPath decodificado (como Tomcat): el firewall los revisa a ambos
+ * ✔ Sin cuerpo ni sesión (API sin estado) ni procesamiento asíncrono
+ */
+final class SubRequest extends HttpServletRequestWrapper {
+
+    // Base sin request real: todo lo no sobrescrito falla en vez de llegar a Tomcat
+    private static final HttpServletRequest DETACHED = (HttpServletRequest) Proxy.newProxyInstance(
+            SubRequest.class.getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "SubRequest.DETACHED";
+                default -> throw new UnsupportedOperationException("SubRequest no implementa " + method.getName());
+            });
+
+    private final String contextPath;
+    private final String path;
+    private final String servletPath;
+    private final String queryString;
+    private final MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+    private final Map<String, String> headers = new LinkedCaseInsensitiveMap<>(Locale.ROOT);
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final Principal principal;
+    private final Locale locale;
+    private final List<Locale> locales;
+    private final Cookie[] cookies;
+    private final HttpServletMapping mapping;
+    private final String scheme;
+    private final String serverName;
+    private final int serverPort;
+    private final boolean secure;
+    private final String protocol;
+    private final String remoteAddr;
+    private final String remoteHost;
+    private final int remotePort;
+    private final String localAddr;
+    private final String localName;
+    private final int localPort;
+    private final ServletContext servletContext;
+    private final String authType;
+
+    /**
+     * @throws IllegalArgumentException si la ruta o la query tienen escapes % inválidos
+     */
+    SubRequest(HttpServletRequest batch, String target, Map<String, String> extraHeaders) {
+        super(DETACHED);
+        int question = target.indexOf('?');
+        this.contextPath = batch.getContextPath();
+        this.path = question < 0 ? target : target.substring(0, question);
+        this.servletPath = UriUtils.decode(path, StandardCharsets.UTF_8);
+        this.queryString = question < 0 ? null : target.substring(question + 1);
+        UriComponentsBuilder.fromUriString(target).build().getQueryParams().forEach((name, values) ->
+                values.forEach(value -> parameters.add(decode(name), value != null ? decode(value) : "")));
+
+        headers.put(HttpHeaders.ACCEPT, "application/json");
+        if (extraHeaders != null) headers.putAll(extraHeaders);
+        this.principal = batch.getUserPrincipal();
+        this.locale = batch.getLocale();
+        this.locales = Collections.list(batch.getLocales());
+        Cookie[] batchCookies = batch.getCookies();
+        this.cookies = batchCookies != null
+                ? Arrays.stream(batchCookies).map(Cookie::clone).toArray(Cookie[]::new)
+                : null;
+        this.mapping = batch.getHttpServletMapping();
+        this.scheme = batch.getScheme();
+        this.serverName = batch.getServerName();
+        this.serverPort = batch.getServerPort();
+        this.secure = batch.isSecure();
+        this.protocol = batch.getProtocol();
+        this.remoteAddr = batch.getRemoteAddr();
+        this.remoteHost = batch.getRemoteHost();
+        this.remotePort = batch.getRemotePort();
+        this.localAddr = batch.getLocalAddr();
+        this.localName = batch.getLocalName();
+        this.localPort = batch.getLocalPort();
+        this.servletContext = batch.getServletContext();
+        this.authType = batch.getAuthType();
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    // 🔹 Ruta
+
+    @Override
+    public String getMethod() {
+        return "GET";
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return contextPath + path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(scheme).append("://").append(serverName).append(':').append(serverPort)
+                .append(getRequestURI());
+    }
+
+    @Override
+    public String getServletPath() {
+        return servletPath;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public HttpServletMapping getHttpServletMapping() {
+        return mapping;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    // 🔹 Parámetros
+
+    @Override
+    public String getParameter(String name) {
+        return parameters.getFirst(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        Map<String, String[]> map = new LinkedHashMap<>();
+        parameters.forEach((name, values) -> map.put(name, values.toArray(String[]::new)));
+        return map;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        List<String> values = parameters.get(name);
+        return values != null ? values.toArray(String[]::new) : null;
+    }
+
+    // 🔹 Headers
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = headers.get(name);
+        return value != null ? Collections.enumeration(List.of(value)) : Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return -1;
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = headers.get(name);
+        return value != null ? Integer.parseInt(value) : -1;
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return cookies;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(locales);
+    }
+
+    // 🔹 Atributos propios: el DispatcherServlet los escribe en cada hilo
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) attributes.remove(name);
+        else attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    // 🔹 Usuario del lote (ya autenticado por el filtro JWT)
+
+    @Override
+    public Principal getUserPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return principal != null ? principal.getName() : null;
+    }
+
+    @Override
+    public String getAuthType() {
+        return authType;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return principal instanceof Authentication authentication
+                && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ("ROLE_" + role).equals(authority.getAuthority()));
+    }
+
+    // 🔹 Conexión del lote (copiada)
+
+    @Override
+    public String getScheme() {
+        return scheme;
+    }
+
+    @Override
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return secure;
+    }
+
+    @Override
+    public String getProtocol() {
+        return protocol;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return remoteHost;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return remotePort;
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return localAddr;
+    }
+
+    @Override
+    public String getLocalName() {
+        return localName;
+    }
+
+    @Override
+    public int getLocalPort() {
+        return localPort;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    // 🔹 Sin cuerpo, sesión ni async
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public int getContentLength() {
+        return 0;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return 0;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return true;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read() {
+                return -1;
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new StringReader(""));
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) throw new IllegalStateException("Las solicitudes de un lote no tienen sesión");
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Las solicitudes de un lote no admiten procesamiento asíncrono");
+    }
+}
@@ -0,0 +1,89 @@
+package com.app.emsx.common.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BloomFilter
+ * -----------------------------------------------------
+ * ✔ Conjunto probabilístico de Strings: "seguro no está" o "puede estar"
+ * ✔ Sin falsos negativos para lo insertado; falsos positivos ≈ fpp hasta la capacidad
+ * ✔ Seguro para hilos (bits en AtomicLongArray); no admite borrados
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+    private final long capacity;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long capacity, double fpp) {
+        long m = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.numBits = Math.max(64, (m + 63) / 64 * 64);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(numBits / 64));
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param capacity elementos esperados
+     * @param fpp      tasa de falsos positivos deseada (0 < fpp < 1)
+     */
+    public static BloomFilter create(long capacity, double fpp) {
+        if (capacity <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Parámetros de BloomFilter inválidos");
+        }
+        return new BloomFilter(capacity, fpp);
+    }
+
+    public void put(CharSequence value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0
+                    && !bits.compareAndSet(word, current, current | mask)) {
+                // reintento: otro hilo modificó la misma palabra
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(CharSequence value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Superada la capacidad, la tasa de falsos positivos crece: conviene reconstruir
+    public boolean isSaturated() {
+        return insertions.get() > capacity;
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres + mezcla final (fmix64 de MurmurHash3)
+    private static long hash(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,141 @@
+package com.app.emsx.common.bloom;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ContactBloomFilters
+ * -----------------------------------------------------
+ * ✔ Filtros Bloom en memoria sobre los emails y teléfonos existentes de pacientes y doctores
+ * ✔ Si ninguno de los valores "puede existir", el alta se ahorra la consulta de unicidad
+ * ✔ Se cargan al arrancar y se actualizan en cada escritura; al saturarse se reconstruyen
+ *
+ * Son un atajo, no la garantía: hasta que terminan de cargarse responden siempre
+ * "puede existir", y las escrituras de otras instancias no se ven. Los índices únicos
+ * uq_*_email / uq_*_phone siguen siendo la protección final.
+ */
+@Component
+public class ContactBloomFilters {
+
+    private static final long MIN_CAPACITY = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    public enum Table {
+        PATIENTS("patients"),
+        DOCTORS("doctors");
+
+        private final String name;
+
+        Table(String name) {
+            this.name = name;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Table, Filters> filters = new EnumMap<>(Table.class);
+
+    public ContactBloomFilters(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (Table table : Table.values()) {
+            filters.put(table, new Filters());
+        }
+    }
+
+    /**
+     * ✅ false = ninguno de los valores (no nulos) existe con seguridad; true = hay que consultar la BD
+     */
+    public boolean mightExist(Table table, String email, String phone) {
+        Filters f = filters.get(table);
+        BloomFilter emails = f.emails;
+        BloomFilter phones = f.phones;
+        if (emails == null || phones == null) {
+            return true;
+        }
+        return (email != null && emails.mightContain(email))
+                || (phone != null && phones.mightContain(phone));
+    }
+
+    /**
+     * ✅ Registra los valores recién guardados (también en la reconstrucción en curso).
+     * Dentro de una transacción se registran al confirmarla: así un valor registrado antes de
+     * que empiece una reconstrucción ya está confirmado cuando ésta lee la tabla, y uno
+     * registrado después va directo a los filtros nuevos; ninguno se pierde.
+     */
+    public void record(Table table, String email, String phone) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(table, email, phone);
+                }
+            });
+        } else {
+            put(table, email, phone);
+        }
+    }
+
+    private void put(Table table, String email, String phone) {
+        Filters f = filters.get(table);
+        put(f.emails, f.nextEmails, email);
+        put(f.phones, f.nextPhones, phone);
+        BloomFilter emails = f.emails;
+        if (emails != null && emails.isSaturated()) {
+            CompletableFuture.runAsync(() -> rebuild(table));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        for (Table table : Table.values()) {
+            rebuild(table);
+        }
+    }
+
+    public void rebuild(Table table) {
+        Filters f = filters.get(table);
+        if (!f.rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table.name, Long.class);
+            long capacity = Math.max(MIN_CAPACITY, (count == null ? 0 : count) * 2);
+            // Desde aquí las escrituras confirmadas también van a los filtros nuevos; las confirmadas
+            // antes ya están en la lectura de abajo (su snapshot empieza después)
+            f.nextEmails = BloomFilter.create(capacity, FALSE_POSITIVE_RATE);
+            f.nextPhones = BloomFilter.create(capacity, FALSE_POSITIVE_RATE);
+            jdbcTemplate.query("SELECT email, phone FROM " + table.name, rs -> {
+                put(f.nextEmails, null, rs.getString(1));
+                put(f.nextPhones, null, rs.getString(2));
+            });
+            f.emails = f.nextEmails;
+            f.phones = f.nextPhones;
+        } finally {
+            f.nextEmails = null;
+            f.nextPhones = null;
+            f.rebuilding.set(false);
+        }
+    }
+
+    private static void put(BloomFilter current, BloomFilter next, String value) {
+        if (value == null) return;
+        if (current != null) current.put(value);
+        if (next != null) next.put(value);
+    }
+
+    private static final class Filters {
+        private volatile BloomFilter emails;
+        private volatile BloomFilter phones;
+        private volatile BloomFilter nextEmails;
+        private volatile BloomFilter nextPhones;
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+    }
+}
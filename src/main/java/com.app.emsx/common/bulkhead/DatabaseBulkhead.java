@@ -0,0 +1,133 @@
+package com.app.emsx.common.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DatabaseBulkhead
+ * -----------------------------------------------------
+ * ✔ Semáforo justo (FIFO) con tantos permisos como conexiones tiene el pool
+ * ✔ Cada getConnection() toma un permiso y el close() de esa conexión lo devuelve:
+ *   nunca hay más hilos pidiendo conexión que conexiones disponibles
+ * ✔ Con hilos virtuales los requests no están acotados por el pool de Tomcat: sin el
+ *   bulkhead, miles de hilos se agolparían en el pool de conexiones hasta su timeout
+ * ✔ Espera máxima acotada: al vencer falla rápido (503) en lugar de encolar sin límite
+ * ✔ Métricas: emsx.db.bulkhead.available / waiting / rejected
+ */
+public class DatabaseBulkhead implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int size;
+    private final long timeoutNanos;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public DatabaseBulkhead(int size, Duration timeout) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("El bulkhead de BD necesita al menos un permiso");
+        }
+        this.permits = new Semaphore(size, true);
+        this.size = size;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * ✅ DataSource que pasa por el bulkhead antes de pedir cada conexión
+     */
+    public DataSource wrap(DataSource target) {
+        return new BulkheadDataSource(target);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("emsx.db.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Permisos libres del bulkhead de BD")
+                .register(registry);
+        Gauge.builder("emsx.db.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .description("Hilos esperando un permiso del bulkhead de BD")
+                .register(registry);
+        FunctionCounter.builder("emsx.db.bulkhead.rejected", rejected, AtomicLong::get)
+                .description("Pedidos de conexión rechazados por espera vencida")
+                .register(registry);
+    }
+
+    private Connection acquire(ConnectionSource source) throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "Bulkhead de BD lleno: sin conexión disponible tras " + Duration.ofNanos(timeoutNanos).toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando un permiso del bulkhead de BD", e);
+        }
+        try {
+            return releasingOnClose(source.get());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // La conexión devuelve el permiso en su primer close() (los siguientes no liberan de más)
+    private Connection releasingOnClose(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            target.close();
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+
+    private final class BulkheadDataSource extends DelegatingDataSource {
+
+        private BulkheadDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return acquire(() -> obtainTargetDataSource().getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return acquire(() -> obtainTargetDataSource().getConnection(username, password));
+        }
+    }
+}
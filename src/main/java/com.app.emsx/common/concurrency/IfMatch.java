@@ -0,0 +1,54 @@
+package com.app.emsx.common.concurrency;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.exceptions.PreconditionFailedException;
+import com.app.emsx.exceptions.VersionConflictException;
+
+/**
+ * IfMatch
+ * -----------------------------------------------------
+ * ✔ Header If-Match de PUT/DELETE con la versión (@Version) que el cliente leyó:
+ *   el campo version del cuerpo, como "3" (ETag fuerte) o 3; sin header o con * no se
+ *   exige versión (último en escribir gana, con reintento ante escrituras concurrentes:
+ *   ver RetryOnConflict)
+ * ✔ El ETag de los GET condicionales (W/"...", versiones de tabla) no es la versión del
+ *   registro: If-Match compara en forma fuerte (RFC 9110) y un W/ responde 412
+ * ✔ check() rechaza la escritura si la entidad cargada ya tiene otra versión
+ */
+public final class IfMatch {
+
+    private IfMatch() {
+    }
+
+    /**
+     * ✅ Versión esperada o null si el cliente no la exige
+     */
+    public static Long version(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String value = header.trim();
+        if (value.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match no admite ETags débiles (" + header
+                    + "): envía la versión del registro (campo version), por ejemplo If-Match: \"3\"");
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BusinessRuleException("If-Match inválido: se esperaba la versión del registro y llegó " + header);
+        }
+    }
+
+    /**
+     * ✅ Compara la versión cargada con la esperada (null = sin exigencia)
+     */
+    public static void check(Long expected, Long current) {
+        if (expected != null && !expected.equals(current)) {
+            throw new VersionConflictException("El registro fue modificado por otro usuario (versión actual "
+                    + current + ", enviada " + expected + "). Vuelve a cargarlo e intenta nuevamente");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.app.emsx.common.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * OptimisticRetryAspect
+ * -----------------------------------------------------
+ * ✔ Reintenta los métodos @RetryOnConflict ante ObjectOptimisticLockingFailureException
+ *   (UPDATE/DELETE con versión vieja: otra transacción escribió primero)
+ * ✔ Envuelve a @Transactional (orden más alto): cada intento es una transacción nueva
+ * ✔ Espera aleatoria creciente entre intentos (hasta backoff × intento) para separar a los rivales
+ * ✔ Dentro de una transacción ya abierta no reintenta: la sesión quedó inválida y decide quien la abrió
+ *
+ * Métrica: emsx.optimistic-lock.conflicts{operation, outcome=retried|exhausted}
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticRetryAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryAspect.class);
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public OptimisticRetryAspect(ObjectProvider<MeterRegistry> registryProvider,
+                                 @Value("${optimistic-lock.retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${optimistic-lock.retry.backoff:25ms}") Duration backoff) {
+        this.registryProvider = registryProvider;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+    }
+
+    @Around("@annotation(com.app.emsx.common.concurrency.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    registryProvider.getObject().counter("emsx.optimistic-lock.conflicts",
+                            "operation", operation, "outcome", "exhausted").increment();
+                    log.warn("Conflicto de versión en {}: reintentos agotados ({})", operation, maxAttempts);
+                    throw ex;
+                }
+                registryProvider.getObject().counter("emsx.optimistic-lock.conflicts",
+                        "operation", operation, "outcome", "retried").increment();
+                log.debug("Conflicto de versión en {} (intento {}), reintentando", operation, attempt);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) throws InterruptedException {
+        long maxMillis = backoff.toMillis() * attempt;
+        if (maxMillis > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis + 1));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.app.emsx.common.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * RetryOnConflict
+ * -----------------------------------------------------
+ * ✔ Marca una escritura de servicio que se repite (nueva transacción, entidades recargadas)
+ *   cuando Hibernate detecta una escritura concurrente sobre la misma versión
+ * ✔ Reintentos acotados por optimistic-lock.retry.*; agotados, el error llega al cliente como 409
+ * ✔ Un If-Match que no coincide (VersionConflictException) no se reintenta
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
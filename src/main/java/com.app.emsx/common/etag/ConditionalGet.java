@@ -0,0 +1,26 @@
+package com.app.emsx.common.etag;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ConditionalGet
+ * -----------------------------------------------------
+ * ✔ Marca un GET cuya respuesta depende sólo de las tablas indicadas
+ * ✔ ConditionalGetInterceptor arma el ETag con sus versiones (table_versions) y
+ *   responde 304 ante un If-None-Match vigente, antes de consultar y serializar
+ * ✔ Deben figurar todas las tablas que aporta la proyección (incluidos los JOIN)
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    /**
+     * Tablas de las que depende la respuesta (constantes de TableVersionRepository)
+     */
+    String[] value();
+}
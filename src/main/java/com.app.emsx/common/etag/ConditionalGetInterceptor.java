@@ -0,0 +1,60 @@
+package com.app.emsx.common.etag;
+
+import com.app.emsx.repositories.TableVersionRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * ConditionalGetInterceptor
+ * -----------------------------------------------------
+ * ✔ GET condicional para los endpoints marcados con @ConditionalGet
+ * ✔ ETag = versiones de las tablas de la respuesta (una lectura por PK de table_versions)
+ * ✔ ETag débil (W/): identifica los datos, no los bytes (el timestamp del sobre cambia y la
+ *   respuesta puede ir comprimida); Tomcat no comprime respuestas con ETag fuerte
+ * ✔ No sirve para If-Match en PUT/DELETE: ahí va la versión del registro (campo version, ver IfMatch)
+ * ✔ If-None-Match vigente → 304 sin cuerpo: no corre el servicio, ni la consulta, ni la serialización
+ * ✔ La versión se lee antes que los datos: si una escritura se cuela entre ambas lecturas,
+ *   el ETag queda viejo y el siguiente sondeo recibe 200 (nunca un 304 con datos nuevos)
+ * ✔ Cache-Control private, no-cache: la caché HTTP del cliente guarda la respuesta y
+ *   siempre revalida (Spring Security pondría no-store si no hay valor)
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private final TableVersionRepository versions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) return true;
+        ConditionalGet conditional = method.getMethodAnnotation(ConditionalGet.class);
+        if (conditional == null) return true;
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        String etag = etagOf(conditional.value());
+        // checkNotModified escribe el ETag y, si coincide con If-None-Match, el 304
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    // W/"versión-versión-..." en hexadecimal, en el orden declarado en la anotación
+    private String etagOf(String[] tables) {
+        Map<String, Long> current = versions.findVersions(List.of(tables));
+        StringJoiner etag = new StringJoiner("-", "W/\"", "\"");
+        for (String table : tables) {
+            etag.add(Long.toHexString(current.get(table)));
+        }
+        return etag.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.app.emsx.common.fields;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * FieldsQuery
+ * -----------------------------------------------------
+ * ✔ Campos pedidos por el cliente en las lecturas: ?fields=id,firstName,lastName
+ * ✔ Se enlaza directamente desde la query string (igual que PageQuery)
+ * ✔ Los servicios lo bajan a la proyección (Projection.only): la consulta sólo lee
+ *   esas columnas; FieldsResponseAdvice deja en el JSON sólo esos campos
+ * ✔ Sin fields= la respuesta es completa; el id va siempre
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldsQuery {
+
+    // Id del @JsonFilter de los DTO de respuesta recortables
+    public static final String FILTER = "fields";
+
+    private String fields;   // nombres de campos del DTO separados por coma
+
+    /**
+     * ✅ Campos pedidos más el id; vacío si no se pidió ninguno (respuesta completa)
+     */
+    public Set<String> names() {
+        Set<String> names = new LinkedHashSet<>();
+        if (fields == null || fields.isBlank()) return names;
+        names.add("id");
+        Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,48 @@
+package com.app.emsx.common.fields;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * FieldsResponseAdvice
+ * -----------------------------------------------------
+ * ✔ Aplica ?fields= al serializar: los DTO con @JsonFilter(FieldsQuery.FILTER) sólo
+ *   escriben los campos pedidos (los demás llegan en NULL desde la proyección)
+ * ✔ Sólo en los endpoints que reciben un FieldsQuery (los que recortan la consulta)
+ * ✔ También alcanza a los listados RowStream: se serializan con el mismo proveedor de filtros
+ */
+@RestControllerAdvice
+public class FieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Method method = returnType.getMethod();
+        return super.supports(returnType, converterType) && method != null
+                && Arrays.asList(method.getParameterTypes()).contains(FieldsQuery.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        Set<String> names = new FieldsQuery(servletRequest.getParameter("fields")).names();
+        if (names.isEmpty()) return;
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(FieldsQuery.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+    }
+}
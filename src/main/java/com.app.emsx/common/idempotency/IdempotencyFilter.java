@@ -0,0 +1,243 @@
+package com.app.emsx.common.idempotency;
+
+import com.app.emsx.common.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * IdempotencyFilter
+ * -----------------------------------------------------
+ * ✔ Header Idempotency-Key en los altas marcados con @Idempotent
+ * ✔ Primera solicitud: se ejecuta normal y, si responde 2xx, se guarda la respuesta (IdempotencyStore)
+ * ✔ Reintentos con la misma clave y el mismo cuerpo: se repite la respuesta guardada sin
+ *   ejecutar el servicio (header Idempotency-Replayed: true)
+ * ✔ Misma clave con otro cuerpo → 422; primera solicitud todavía en curso → 409
+ * ✔ Las respuestas de error no se guardan: la clave se libera y el cliente puede reintentar
+ * ✔ La clave es por usuario y endpoint: dos usuarios no comparten respuestas
+ *
+ * Métrica: emsx.idempotency.requests{outcome=proceed|replay|in_progress|mismatch}
+ * Corre después de Spring Security (orden por defecto), ya con el usuario autenticado.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Qualifier("requestMappingHandlerMapping")
+                             ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!isIdempotent(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "El header " + HEADER + " debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = sha256(body);
+        String scopedKey = owner(request) + ':' + request.getRequestURI() + ':' + key;
+
+        IdempotencyStore.Decision decision = store.begin(scopedKey, fingerprint);
+        meterRegistry.counter("emsx.idempotency.requests", "outcome", decision.outcome().name().toLowerCase()).increment();
+
+        switch (decision.outcome()) {
+            case REPLAY -> replay(response, decision);
+            case IN_PROGRESS -> writeError(response, HttpStatus.CONFLICT,
+                    "Ya hay una solicitud en curso con ese " + HEADER + ", reintenta en unos segundos");
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "El " + HEADER + " ya se usó con otro contenido");
+            case PROCEED -> proceed(new CachedBodyRequest(request, body), response, filterChain, scopedKey,
+                    decision.claimedAt(), fingerprint);
+        }
+    }
+
+    private void proceed(HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain filterChain,
+                         String key,
+                         Instant claimedAt,
+                         String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful()) {
+                store.complete(key, claimedAt, fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getContentAsByteArray());
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(key, claimedAt);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.Decision decision) throws IOException {
+        response.setStatus(decision.record().status());
+        if (decision.record().contentType() != null) {
+            response.setContentType(decision.record().contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = decision.record().body();
+        if (body != null) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    // 🔹 Sólo los handlers anotados: el resto de POST ignora el header
+    private boolean isIdempotent(HttpServletRequest request) throws ServletException {
+        try {
+            HandlerExecutionChain chain = handlerMapping.getObject().getHandler(request);
+            return chain != null
+                    && chain.getHandler() instanceof HandlerMethod method
+                    && method.hasMethodAnnotation(Idempotent.class);
+        } catch (ServletException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+
+    private static String owner(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : "anonymous";
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.fail(message));
+    }
+
+    /**
+     * Request con el cuerpo ya leído (para la huella): el controlador lo vuelve a leer desde memoria
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.app.emsx.common.idempotency;
+
+import com.app.emsx.repositories.IdempotencyKeyRepository;
+import com.app.emsx.repositories.projections.IdempotencyRecord;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * IdempotencyStore
+ * -----------------------------------------------------
+ * ✔ Respuestas guardadas por Idempotency-Key: caché en memoria acotada (Caffeine) + tabla
+ *   idempotency_keys como respaldo (otras instancias, reinicios, claves desalojadas)
+ * ✔ La caché sólo guarda respuestas completas; las reservas en curso viven en la BD
+ * ✔ Las claves vencen a idempotency.ttl; una reserva en curso por más de
+ *   idempotency.in-progress-timeout se da por abandonada (instancia caída a mitad de la solicitud)
+ *   y otra solicitud con la misma clave la vuelve a ejecutar: el valor debe superar la duración
+ *   del alta más lenta (importaciones incluidas), si no un reintento la duplica
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public enum Outcome { PROCEED, REPLAY, IN_PROGRESS, MISMATCH }
+
+    /**
+     * Qué hacer con la solicitud; record sólo con REPLAY, claimedAt sólo con PROCEED
+     * (identifica la reserva: complete/release no tocan una reserva tomada por otra solicitud)
+     */
+    public record Decision(Outcome outcome, IdempotencyRecord record, Instant claimedAt) {
+
+        Decision(Outcome outcome, IdempotencyRecord record) {
+            this(outcome, record, null);
+        }
+    }
+
+    private final IdempotencyKeyRepository repository;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Cache<String, IdempotencyRecord> completed;
+
+    public IdempotencyStore(IdempotencyKeyRepository repository,
+                            @Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.in-progress-timeout:5m}") Duration inProgressTimeout,
+                            @Value("${idempotency.cache.max-size:10000}") long maxSize) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * ✅ Reserva la clave o indica cómo responder (repetir, en curso, otro contenido)
+     */
+    public Decision begin(String key, String fingerprint) {
+        IdempotencyRecord cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return decide(cached, fingerprint);
+        }
+
+        // Precisión de timestamptz: claimedAt tiene que volver a coincidir con la fila
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if (repository.claim(key, fingerprint, now, now.minus(ttl), now.minus(inProgressTimeout))) {
+            return new Decision(Outcome.PROCEED, null, now);
+        }
+        // Sin fila: la otra solicitud falló y liberó la clave justo ahora; el cliente puede reintentar
+        IdempotencyRecord stored = repository.find(key).orElse(null);
+        if (stored == null) {
+            return new Decision(Outcome.IN_PROGRESS, null);
+        }
+        if (stored.completed()) {
+            completed.put(key, stored);
+        }
+        return decide(stored, fingerprint);
+    }
+
+    public void complete(String key, Instant claimedAt, String fingerprint, int status, String contentType, byte[] body) {
+        if (repository.complete(key, claimedAt, status, contentType, body)) {
+            completed.put(key, new IdempotencyRecord(fingerprint, status, contentType, body));
+        } else {
+            log.warn("Idempotency-Key {} reservada de nuevo tras idempotency.in-progress-timeout; respuesta no guardada", key);
+        }
+    }
+
+    public void release(String key, Instant claimedAt) {
+        repository.release(key, claimedAt);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        int purged = repository.purge(Instant.now().minus(ttl));
+        if (purged > 0) {
+            log.debug("Idempotency-Key vencidas eliminadas: {}", purged);
+        }
+    }
+
+    private static Decision decide(IdempotencyRecord record, String fingerprint) {
+        if (!record.fingerprint().equals(fingerprint)) {
+            return new Decision(Outcome.MISMATCH, null);
+        }
+        return record.completed()
+                ? new Decision(Outcome.REPLAY, record)
+                : new Decision(Outcome.IN_PROGRESS, null);
+    }
+}
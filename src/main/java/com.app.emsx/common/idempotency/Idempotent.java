@@ -0,0 +1,20 @@
+package com.app.emsx.common.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Idempotent
+ * -----------------------------------------------------
+ * ✔ Marca un alta (POST) que acepta el header Idempotency-Key
+ * ✔ IdempotencyFilter guarda la respuesta de la primera ejecución y la repite ante
+ *   reintentos con la misma clave, sin volver a ejecutar el servicio
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,96 @@
+package com.app.emsx.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+import org.springframework.stereotype.Component;
+
+/**
+ * OperationMetrics
+ * -----------------------------------------------------
+ * ✔ Timers Micrometer (con histograma de latencias) para cada llamada de servicio y de repositorio
+ * ✔ Mismas etiquetas en todos: operation = Clase.método, outcome = success | nombre de la excepción
+ *
+ *   emsx.service     → métodos públicos de los *ServiceImpl (aspecto)
+ *   emsx.repository  → repositorios Spring Data (instrumentación de Spring Boot, ver RepositoryTags)
+ *                      y repositorios JDBC propios (aspecto)
+ *   emsx.auth.jwt    → autenticación del JwtAuthenticationFilter
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class OperationMetrics {
+
+    public static final String SERVICE = "emsx.service";
+    public static final String REPOSITORY = "emsx.repository";
+    public static final String SUCCESS = "success";
+
+    // Resolución diferida: el aspecto se crea antes que el MeterRegistry (los repositorios que usan
+    // los entity listeners nacen junto al EntityManagerFactory, del que dependen las métricas de Hibernate)
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private volatile MeterRegistry registry;
+
+    @Around("execution(public * com.app.emsx.serviceimpls.*ServiceImpl.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE, joinPoint);
+    }
+
+    // Clases concretas (JDBC) del paquete; los proxies de Spring Data tienen como destino
+    // SimpleJpaRepository y ya se miden vía spring.data.repository (renombrada a emsx.repository)
+    @Around("within(com.app.emsx.repositories.*Repository) && execution(public * *(..))")
+    public Object timeJdbcRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY, joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        MeterRegistry registry = registry();
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = SUCCESS;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                    + "." + joinPoint.getSignature().getName();
+            sample.stop(registry.timer(name, "operation", operation, "outcome", outcome));
+        }
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getObject();
+            registry = current;
+        }
+        return current;
+    }
+
+    /**
+     * ✅ Etiquetas de las invocaciones de Spring Data alineadas con las de los timers propios
+     */
+    @Component
+    public static class RepositoryTags implements RepositoryTagsProvider {
+
+        @Override
+        public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+            RepositoryMethodInvocationResult result = invocation.getResult();
+            String outcome = result == null || result.getError() == null
+                    ? SUCCESS
+                    : result.getError().getClass().getSimpleName();
+            return Tags.of(
+                    "operation", invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName(),
+                    "outcome", outcome);
+        }
+    }
+}
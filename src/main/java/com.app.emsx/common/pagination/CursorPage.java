@@ -0,0 +1,27 @@
+package com.app.emsx.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * CursorPage<T>
+ * -----------------------------------------------------
+ * ✔ Página de resultados de un listado paginado por cursor
+ * ✔ nextCursor se envía tal cual en la siguiente petición (?cursor=...)
+ * ✔ hasMore = false indica que no quedan más filas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+    private String sort;
+}
@@ -0,0 +1,166 @@
+package com.app.emsx.common.pagination;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.repositories.ProjectionExecutor;
+import com.app.emsx.repositories.projections.Projection;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset
+ * -----------------------------------------------------
+ * ✔ Paginación por cursor (seek) sobre los repositorios JPA
+ * ✔ Consulta keyset: WHERE (k1, k2, id) > (:v1, :v2, :id) ORDER BY k1, k2, id LIMIT n
+ * ✔ Las filas se proyectan directo al DTO (ProjectionExecutor), sin cargar entidades
+ * ✔ El cursor es opaco (Base64 URL) y conserva el orden con el que se generó
+ *
+ * Las claves de orden deben terminar en "id" y apuntar a columnas NOT NULL en la BD
+ * (schema-postgresql.sql, emsx_set_not_null): con un NULL, "k > NULL" no coincide con
+ * nada y la paginación se cortaría sin aviso.
+ */
+public final class Keyset {
+
+    private static final String VERSION = "v1";
+    private static final String DEFAULT_SORT = "id";
+
+    private Keyset() {
+    }
+
+    /**
+     * ✅ Ejecuta una página keyset proyectada al DTO de respuesta
+     *
+     * @param sorts claves de orden permitidas (nombre → propiedades); "id" es el orden por defecto
+     */
+    public static <T, R> CursorPage<R> page(ProjectionExecutor<T> repository,
+                                            Projection<T, R> projection,
+                                            Specification<T> filter,
+                                            Map<String, List<String>> sorts,
+                                            PageQuery query) {
+        int size = query.resolvedSize();
+        Position position = query.getCursor() != null && !query.getCursor().isBlank()
+                ? decode(query.getCursor())
+                : parseSort(query.getSort());
+
+        List<String> properties = sorts.get(position.sort());
+        if (properties == null) {
+            throw new BusinessRuleException("Orden no permitido: " + position.sort() + ". Valores válidos: " + sorts.keySet());
+        }
+        if (!position.keys().isEmpty() && !position.keys().keySet().containsAll(properties)) {
+            throw new BusinessRuleException("Cursor de paginación inválido");
+        }
+        Sort sort = Sort.by(position.direction(), properties.toArray(String[]::new));
+        KeysetScrollPosition scroll = position.keys().isEmpty()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(position.keys());
+
+        Window<R> window = repository.scrollProjected(projection, filter, sort, size, scroll);
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = encode(new Position(position.sort(), position.direction(), last.getKeys()));
+        }
+
+        return CursorPage.<R>builder()
+                .items(window.getContent())
+                .size(window.size())
+                .hasMore(window.hasNext())
+                .nextCursor(nextCursor)
+                .sort(position.sort() + "," + position.direction().name().toLowerCase())
+                .build();
+    }
+
+    /**
+     * ✅ Variante sin filtros (listados completos)
+     */
+    public static <T, R> CursorPage<R> page(ProjectionExecutor<T> repository,
+                                            Projection<T, R> projection,
+                                            Map<String, List<String>> sorts,
+                                            PageQuery query) {
+        return page(repository, projection, (root, q, cb) -> null, sorts, query);
+    }
+
+    // 🔹 "campo" o "campo,desc"; sin valor se ordena por id ascendente
+    private static Position parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return new Position(DEFAULT_SORT, Sort.Direction.ASC, Map.of());
+        }
+        String[] parts = sort.split(",", 2);
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new BusinessRuleException("Dirección de orden inválida: " + parts[1]));
+        }
+        return new Position(parts[0].trim(), direction, Map.of());
+    }
+
+    // 🔐 Formato interno: v1|sort|dir|prop=T:valor&prop=T:valor  (Base64 URL sin padding)
+    private static String encode(Position position) {
+        StringBuilder sb = new StringBuilder(VERSION)
+                .append('|').append(position.sort())
+                .append('|').append(position.direction().name());
+        char separator = '|';
+        for (Map.Entry<String, Object> key : position.keys().entrySet()) {
+            sb.append(separator).append(key.getKey()).append('=')
+                    .append(typeOf(key.getValue())).append(':')
+                    .append(URLEncoder.encode(String.valueOf(key.getValue()), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException(raw);
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String entry : parts[3].split("&")) {
+                int eq = entry.indexOf('=');
+                String value = URLDecoder.decode(entry.substring(eq + 3), StandardCharsets.UTF_8);
+                keys.put(entry.substring(0, eq), valueOf(entry.charAt(eq + 1), value));
+            }
+            return new Position(parts[1], Sort.Direction.valueOf(parts[2]), keys);
+        } catch (RuntimeException e) {
+            throw new BusinessRuleException("Cursor de paginación inválido", e);
+        }
+    }
+
+    private static char typeOf(Object value) {
+        if (value instanceof Long) return 'L';
+        if (value instanceof Integer) return 'I';
+        if (value instanceof String) return 'S';
+        if (value instanceof LocalDate) return 'D';
+        if (value instanceof LocalTime) return 'T';
+        throw new IllegalStateException("Tipo de clave keyset no soportado: " + value);
+    }
+
+    private static Object valueOf(char type, String value) {
+        return switch (type) {
+            case 'L' -> Long.valueOf(value);
+            case 'I' -> Integer.valueOf(value);
+            case 'S' -> value;
+            case 'D' -> LocalDate.parse(value);
+            case 'T' -> LocalTime.parse(value);
+            default -> throw new IllegalArgumentException("Tipo desconocido: " + type);
+        };
+    }
+
+    private record Position(String sort, Sort.Direction direction, Map<String, Object> keys) {
+    }
+}
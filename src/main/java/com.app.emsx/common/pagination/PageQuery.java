@@ -0,0 +1,35 @@
+package com.app.emsx.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * PageQuery
+ * -----------------------------------------------------
+ * ✔ Parámetros de paginación por cursor (keyset) de los listados
+ * ✔ Se enlaza directamente desde la query string: ?cursor=&size=&sort=
+ * ✔ sort admite "campo" o "campo,desc" (ej: name,desc)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageQuery {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private String cursor;   // cursor opaco devuelto en la página anterior
+    private Integer size;    // tamaño de página (1..MAX_SIZE)
+    private String sort;     // clave de orden permitida por el recurso
+
+    /**
+     * ✅ Tamaño efectivo: por defecto DEFAULT_SIZE y nunca mayor que MAX_SIZE
+     */
+    public int resolvedSize() {
+        if (size == null || size < 1) return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,92 @@
+package com.app.emsx.common.sqlbudget;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SqlBudgetFilter
+ * -----------------------------------------------------
+ * ✔ Presupuesto de sentencias SQL por request: detecta regresiones N+1 sin esperar a producción
+ * ✔ Cuenta todo el request (incluida la autenticación JWT) con SqlStatementCounter
+ * ✔ Métricas por endpoint ("GET /api/patients/{id}"):
+ *     emsx.sql.statements       sentencias por request
+ *     emsx.sql.budget.exceeded  requests que superaron su presupuesto (+ WARN en el log)
+ *
+ * Presupuestos: sql-budget.default y sql-budget.endpoints ("MÉTODO patrón=N", separados por coma).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets = new HashMap<>();
+
+    public SqlBudgetFilter(MeterRegistry meterRegistry,
+                           @Value("${sql-budget.enabled:true}") boolean enabled,
+                           @Value("${sql-budget.default:10}") int defaultBudget,
+                           @Value("${sql-budget.endpoints:}") List<String> endpoints) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultBudget = defaultBudget;
+        for (String entry : endpoints) {
+            if (entry.isBlank()) continue;
+            int eq = entry.lastIndexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("sql-budget.endpoints: se esperaba 'MÉTODO patrón=N' y llegó '" + entry + "'");
+            }
+            budgets.put(entry.substring(0, eq).trim(), Integer.parseInt(entry.substring(eq + 1).trim()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.start();
+        long statements;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements = SqlStatementCounter.stop();
+        }
+
+        // Patrón del handler (p. ej. /api/patients/{id}); sin patrón = no llegó a un controlador
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + pattern;
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+
+        meterRegistry.summary("emsx.sql.statements", "operation", endpoint).record(statements);
+        if (statements > budget) {
+            meterRegistry.counter("emsx.sql.budget.exceeded", "operation", endpoint).increment();
+            log.warn("Presupuesto SQL superado: {} ejecutó {} sentencias (máximo {})", endpoint, statements, budget);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.app.emsx.common.sqlbudget;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.function.Supplier;
+
+/**
+ * SqlStatementCounter
+ * -----------------------------------------------------
+ * ✔ Cuenta las sentencias SQL que Hibernate prepara en el hilo actual (StatementInspector)
+ * ✔ Lo usa SqlBudgetFilter para medir cada request HTTP
+ * ✔ Ayuda para tests: countStatements / assertMaxStatements sobre un bloque de código
+ *
+ * Sólo ve el SQL de Hibernate (repositorios, Criteria, JPQL); las sentencias JdbcTemplate
+ * (contadores del dashboard, importación masiva) no pasan por aquí.
+ */
+public final class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * ✅ Empieza a contar en el hilo actual (reinicia si ya se estaba contando)
+     */
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    /**
+     * ✅ Deja de contar y devuelve el total; -1 si no se estaba contando
+     */
+    public static long stop() {
+        long[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? -1 : count[0];
+    }
+
+    public static long current() {
+        long[] count = COUNT.get();
+        return count == null ? -1 : count[0];
+    }
+
+    /**
+     * ✅ Ejecuta el bloque y devuelve cuántas sentencias SQL emitió
+     */
+    public static long countStatements(Runnable action) {
+        return measure(() -> {
+            action.run();
+            return null;
+        }).statements();
+    }
+
+    /**
+     * ✅ Para tests: falla con AssertionError si el bloque emite más de max sentencias
+     *
+     *   PatientResponse p = SqlStatementCounter.assertMaxStatements(1, () -> service.findById(id));
+     */
+    public static <T> T assertMaxStatements(int max, Supplier<T> action) {
+        Measured<T> measured = measure(action);
+        if (measured.statements() > max) {
+            throw new AssertionError("Se esperaban como máximo " + max
+                    + " sentencias SQL y se ejecutaron " + measured.statements());
+        }
+        return measured.result();
+    }
+
+    public static void assertMaxStatements(int max, Runnable action) {
+        assertMaxStatements(max, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Cuenta el bloque por separado y suma el resultado a la cuenta exterior (p. ej. la del request)
+    private static <T> Measured<T> measure(Supplier<T> action) {
+        long[] outer = COUNT.get();
+        start();
+        T result = null;
+        long statements;
+        try {
+            result = action.get();
+        } finally {
+            statements = stop();
+            if (outer != null) {
+                outer[0] += statements;
+                COUNT.set(outer);
+            }
+        }
+        return new Measured<>(result, statements);
+    }
+
+    private record Measured<T>(T result, long statements) {
+    }
+}
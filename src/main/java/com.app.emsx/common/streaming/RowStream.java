@@ -0,0 +1,69 @@
+package com.app.emsx.common.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * RowStream<T>
+ * -----------------------------------------------------
+ * ✔ Lista que se serializa como arreglo JSON fila por fila, sin tenerla en memoria
+ * ✔ Va como data de un ApiResponse: el sobre (success, message, timestamp) no cambia
+ * ✔ La fuente (p. ej. service::streamAll) se invoca recién al serializar: el servicio
+ *   abre su transacción, recorre el cursor y cada DTO se escribe directo a la salida
+ * ✔ Memoria constante: una fila y el buffer del JsonGenerator (la respuesta va chunked)
+ *
+ * Un error a mitad de camino corta la respuesta (el estado 200 ya se envió).
+ */
+@JsonSerialize(using = RowStream.Serializer.class)
+public final class RowStream<T> {
+
+    /**
+     * Recorre las filas entregándoselas al sink, en orden
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void forEach(Consumer<T> sink);
+    }
+
+    private final Source<T> source;
+
+    private RowStream(Source<T> source) {
+        this.source = source;
+    }
+
+    public static <T> RowStream<T> of(Source<T> source) {
+        return new RowStream<>(source);
+    }
+
+    static final class Serializer extends StdSerializer<RowStream<?>> {
+
+        Serializer() {
+            super(RowStream.class, false);
+        }
+
+        @Override
+        public void serialize(RowStream<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray();
+            try {
+                value.source.forEach(row -> write(row, gen, provider));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            gen.writeEndArray();
+        }
+
+        private static void write(Object row, JsonGenerator gen, SerializerProvider provider) {
+            try {
+                provider.defaultSerializeValue(row, gen);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
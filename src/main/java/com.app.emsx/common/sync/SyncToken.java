@@ -0,0 +1,40 @@
+package com.app.emsx.common.sync;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * SyncToken
+ * -----------------------------------------------------
+ * ✔ Token opaco de /api/sync: xmin de la instantánea con la que se generó + instante de emisión
+ * ✔ La próxima sincronización devuelve las filas con change_txid >= xmin (ver ChangeTracking);
+ *   alguna fila puede repetirse, ninguna se pierde
+ * ✔ El instante permite detectar tokens más viejos que la retención de las bajas
+ *
+ * Formato interno: s1|xmin|epochMillis (Base64 URL sin padding)
+ */
+public record SyncToken(long xmin, Instant issuedAt) {
+
+    private static final String VERSION = "s1";
+
+    public String encode() {
+        String raw = VERSION + "|" + xmin + "|" + issuedAt.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new SyncToken(Long.parseLong(parts[1]), Instant.ofEpochMilli(Long.parseLong(parts[2])));
+        } catch (RuntimeException e) {
+            throw new BusinessRuleException("Token de sincronización inválido", e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.app.emsx.common.validation;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * FieldRules
+ * -----------------------------------------------------
+ * ✔ Reglas de negocio de los campos de personas (pacientes y doctores)
+ * ✔ Email validado con un único recorrido del texto: sin regex, sin split/join
+ *   ni Strings intermedios (equivalente a ^[a-zA-Z0-9._]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$)
+ * ✔ Mismo orden de reglas y mismos mensajes que las validaciones originales
+ */
+public final class FieldRules {
+
+    private static final int FIRST_NAME_MIN = 2;
+    private static final int FIRST_NAME_MAX = 25;
+    private static final int LAST_NAME_MAX = 20;
+    private static final int PHONE_LENGTH = 8;
+    private static final int EMAIL_LOCAL_MIN = 4;
+    private static final int EMAIL_LOCAL_MAX = 30;
+    private static final int EMAIL_DOMAIN_MAX = 20;
+    private static final int EMAIL_EXTENSION_MAX = 20;
+    private static final LocalDate MIN_BIRTH_DATE = LocalDate.of(1900, 1, 1);
+
+    private FieldRules() {
+    }
+
+    /**
+     * ✅ Nombre, apellido, teléfono y email (los null se omiten: los obligatorios los cubre @Valid)
+     */
+    public static void person(String firstName, String lastName, String phone, String email) {
+        // Validar longitud mínima y máxima del nombre
+        if (firstName != null) {
+            if (trimmedLength(firstName) < FIRST_NAME_MIN) {
+                throw new BusinessRuleException("El nombre debe tener mínimo 2 letras");
+            }
+            if (firstName.length() > FIRST_NAME_MAX) {
+                throw new BusinessRuleException("El nombre no puede tener más de 25 letras");
+            }
+        }
+        // Validar longitud máxima del apellido
+        if (lastName != null && lastName.length() > LAST_NAME_MAX) {
+            throw new BusinessRuleException("El apellido no puede tener más de 20 letras");
+        }
+        // Validar que el teléfono tenga exactamente 8 dígitos
+        if (phone != null && phone.length() != PHONE_LENGTH) {
+            throw new BusinessRuleException("El teléfono debe tener exactamente 8 dígitos");
+        }
+        if (email != null) {
+            email(email);
+        }
+    }
+
+    /**
+     * ✅ Email: formato básico, parte local 4-30 caracteres, dominio y extensión con longitudes máximas
+     */
+    public static void email(String email) {
+        // Límites del texto sin espacios iniciales/finales (como String.trim, sin copiar)
+        int start = 0;
+        int end = email.length();
+        while (start < end && email.charAt(start) <= ' ') start++;
+        while (end > start && email.charAt(end - 1) <= ' ') end--;
+
+        // Un solo recorrido: posición de la @ y del último punto del dominio
+        int at = -1;
+        int lastDot = -1;
+        boolean valid = true;
+        for (int i = start; i < end && valid; i++) {
+            char c = email.charAt(i);
+            if (at < 0) {
+                if (c == '@') {
+                    at = i;
+                } else {
+                    valid = isAsciiLetterOrDigit(c) || c == '.' || c == '_';
+                }
+            } else if (c == '.') {
+                lastDot = i;
+            } else {
+                valid = isAsciiLetterOrDigit(c) || c == '-';
+            }
+        }
+        // parte local ≥ 1, dominio ≥ 1 antes del último punto, extensión ≥ 2 letras
+        valid = valid && at > start && lastDot > at + 1 && end - lastDot - 1 >= 2
+                && isAsciiLetters(email, lastDot + 1, end);
+        if (!valid) {
+            throw new BusinessRuleException("El email debe contener solo letras, números, puntos y guiones bajos");
+        }
+
+        int localLength = at - start;
+        if (localLength < EMAIL_LOCAL_MIN) {
+            throw new BusinessRuleException("La parte antes del @ debe tener mínimo 4 caracteres");
+        }
+        if (localLength > EMAIL_LOCAL_MAX) {
+            throw new BusinessRuleException("La parte antes del @ debe tener máximo 30 caracteres");
+        }
+        // Dominio: después del @ y antes del último punto
+        if (lastDot - at - 1 > EMAIL_DOMAIN_MAX) {
+            throw new BusinessRuleException("El dominio (después del @) debe tener máximo 20 caracteres");
+        }
+        // Extensión: después del último punto
+        if (end - lastDot - 1 > EMAIL_EXTENSION_MAX) {
+            throw new BusinessRuleException("La extensión (después del último punto) debe tener máximo 20 caracteres");
+        }
+    }
+
+    /**
+     * ✅ Fecha de nacimiento ISO (yyyy-MM-dd): rango razonable y no futura; vacía se ignora
+     */
+    public static void dateOfBirth(String value) {
+        if (value == null || value.trim().isEmpty()) return;
+        LocalDate dob;
+        try {
+            dob = LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new BusinessRuleException("Formato de fecha de nacimiento inválido: " + value);
+        }
+        if (dob.isBefore(MIN_BIRTH_DATE)) {
+            throw new BusinessRuleException("La fecha de nacimiento no puede ser anterior a 1900-01-01");
+        }
+        if (dob.isAfter(LocalDate.now())) {
+            throw new BusinessRuleException("La fecha de nacimiento no puede ser futura");
+        }
+    }
+
+    private static int trimmedLength(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+        return end - start;
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isAsciiLetters(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) return false;
+        }
+        return true;
+    }
+}
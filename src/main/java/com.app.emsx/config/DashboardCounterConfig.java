@@ -0,0 +1,26 @@
+package com.app.emsx.config;
+
+import com.app.emsx.entities.listeners.DashboardCounterDeltas;
+import com.app.emsx.entities.listeners.DashboardCounterInterceptor;
+import com.app.emsx.entities.listeners.TableVersionBumps;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * DashboardCounterConfig
+ * -----------------------------------------------------
+ * ✔ Registra DashboardCounterInterceptor en la SessionFactory: los contadores
+ *   del dashboard y las versiones de tabla se escriben una vez por transacción,
+ *   justo antes del commit
+ */
+@Configuration
+public class DashboardCounterConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer dashboardCounterInterceptorCustomizer(DashboardCounterDeltas deltas,
+                                                                              TableVersionBumps versions) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new DashboardCounterInterceptor(deltas, versions));
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.emsx.config;
+
+import com.app.emsx.common.bulkhead.DatabaseBulkhead;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * DatabaseBulkheadConfig
+ * -----------------------------------------------------
+ * ✔ Con db.bulkhead.enabled=true envuelve el DataSource en DatabaseBulkhead
+ *   (activo por defecto cuando se sirven los requests con hilos virtuales)
+ * ✔ Permisos = spring.datasource.hikari.maximum-pool-size (o db.bulkhead.permits)
+ * ✔ Beans static: el post-processor se registra antes de crear el DataSource
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkheadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBulkheadConfig.class);
+
+    // Tamaño por defecto del pool de Hikari
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public static DatabaseBulkhead databaseBulkhead(Environment env) {
+        int poolSize = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, DEFAULT_POOL_SIZE);
+        int permits = env.getProperty("db.bulkhead.permits", Integer.class, 0);
+        Duration timeout = env.getProperty("db.bulkhead.timeout", Duration.class, Duration.ofSeconds(5));
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(permits > 0 ? permits : poolSize, timeout);
+        log.info("Bulkhead de BD: {} permisos, espera máxima {} ms (hilos virtuales: {})", bulkhead.size(),
+                timeout.toMillis(), env.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        return bulkhead;
+    }
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(ObjectProvider<DatabaseBulkhead> bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? bulkhead.getObject().wrap(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.emsx.config;
+
+import com.app.emsx.common.sqlbudget.SqlStatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * SqlBudgetConfig
+ * -----------------------------------------------------
+ * ✔ Registra SqlStatementCounter como StatementInspector de Hibernate
+ *   (cada sentencia preparada suma en el contador del hilo; ver SqlBudgetFilter)
+ */
+@Configuration
+public class SqlBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
@@ -1,16 +1,26 @@
 package com.app.emsx.controllers;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.idempotency.Idempotent;
+import com.app.emsx.common.etag.ConditionalGet;
+import com.app.emsx.common.pagination.PageQuery;
+import com.app.emsx.common.streaming.RowStream;
+import com.app.emsx.dtos.appointment.AppointmentCalendarQuery;
 import com.app.emsx.dtos.appointment.AppointmentRequest;
 import com.app.emsx.dtos.appointment.AppointmentResponse;
 import com.app.emsx.services.AppointmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+import static com.app.emsx.repositories.TableVersionRepository.*;
+
 @RestController
 @RequestMapping("/api/appointments")
 @RequiredArgsConstructor
@@ -18,6 +28,7 @@ public class AppointmentController {
 
     private final AppointmentService service;
 
+    @Idempotent
     @PostMapping
     public ResponseEntity<ApiResponse<AppointmentResponse>> create(@Valid @RequestBody AppointmentRequest request) {
         AppointmentResponse created = service.create(request);
@@ -27,25 +38,52 @@ public class AppointmentController {
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<AppointmentResponse>> update(
             @PathVariable Long id,
-            @Valid @RequestBody AppointmentRequest request
+            @Valid @RequestBody AppointmentRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        AppointmentResponse updated = service.update(id, request);
+        AppointmentResponse updated = service.update(id, request, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Cita actualizada correctamente", updated));
     }
 
+    /**
+     * ✅ Listado paginado por cursor: ?cursor=&size=&sort=&fields=
+     * ✅ ?unpaged=true devuelve la lista completa, escrita fila por fila desde un cursor (sólo bajo opt-in)
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<AppointmentResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de citas", service.findAll()));
+    @ConditionalGet({APPOINTMENTS, PATIENTS, DOCTORS})
+    public ResponseEntity<ApiResponse<?>> findAll(
+            PageQuery page,
+            FieldsQuery fields,
+            @RequestParam(defaultValue = "false") boolean unpaged
+    ) {
+        if (unpaged) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de citas", RowStream.of(sink -> service.streamAll(fields, sink))));
+        }
+        return ResponseEntity.ok(ApiResponse.ok("Lista de citas", service.findPage(page, fields)));
+    }
+
+    /**
+     * ✅ Vista de calendario: citas de un rango de fechas (máx. 31 días)
+     * Endpoint: GET /api/appointments/calendar?from=2025-11-03&to=2025-11-09&doctorId=&patientId=&status=
+     */
+    @GetMapping("/calendar")
+    @ConditionalGet({APPOINTMENTS, PATIENTS, DOCTORS})
+    public ResponseEntity<ApiResponse<List<AppointmentResponse>>> calendar(AppointmentCalendarQuery query, FieldsQuery fields) {
+        return ResponseEntity.ok(ApiResponse.ok("Calendario de citas", service.calendar(query, fields)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<AppointmentResponse>> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.ok("Cita encontrada", service.findById(id)));
+    @ConditionalGet({APPOINTMENTS, PATIENTS, DOCTORS})
+    public ResponseEntity<ApiResponse<AppointmentResponse>> findById(@PathVariable Long id, FieldsQuery fields) {
+        return ResponseEntity.ok(ApiResponse.ok("Cita encontrada", service.findById(id, fields)));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<ApiResponse<Void>> delete(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        service.delete(id, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Cita eliminada correctamente", null));
     }
 }
@@ -0,0 +1,33 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.batch.BatchDispatcher;
+import com.app.emsx.dtos.batch.BatchRequest;
+import com.app.emsx.dtos.batch.BatchResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchDispatcher dispatcher;
+
+    /**
+     * ✅ Varias lecturas en una sola ida y vuelta (pantallas móviles con varios recursos)
+     * Body: {"requests":[{"id":"cita","path":"/api/appointments/5"},{"id":"paciente","path":"/api/patients/3"}]}
+     * Cada resultado trae id, status, headers y el cuerpo que devolvería el endpoint por separado.
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<BatchResponse>> execute(@Valid @RequestBody BatchRequest request,
+                                                              HttpServletRequest servletRequest) {
+        BatchResponse response = BatchResponse.builder()
+                .responses(dispatcher.execute(servletRequest, request.getRequests()))
+                .build();
+        return ResponseEntity.ok(ApiResponse.ok("Lote procesado", response));
+    }
+}
@@ -1,15 +1,24 @@
 package com.app.emsx.controllers;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.idempotency.Idempotent;
+import com.app.emsx.common.etag.ConditionalGet;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
+import com.app.emsx.common.streaming.RowStream;
 import com.app.emsx.dtos.doctor.DoctorRequest;
 import com.app.emsx.dtos.doctor.DoctorResponse;
+import com.app.emsx.dtos.doctor.DoctorSearchCriteria;
 import com.app.emsx.services.DoctorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import static com.app.emsx.repositories.TableVersionRepository.*;
 
 @RestController
 @RequestMapping("/api/doctors")
@@ -18,6 +27,7 @@ public class DoctorController {
 
     private final DoctorService service;
 
+    @Idempotent
     @PostMapping
     public ResponseEntity<ApiResponse<DoctorResponse>> create(@Valid @RequestBody DoctorRequest request) {
         DoctorResponse created = service.create(request);
@@ -27,25 +37,52 @@ public class DoctorController {
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<DoctorResponse>> update(
             @PathVariable Long id,
-            @Valid @RequestBody DoctorRequest request
+            @Valid @RequestBody DoctorRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        DoctorResponse updated = service.update(id, request);
+        DoctorResponse updated = service.update(id, request, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Doctor actualizado correctamente", updated));
     }
 
+    /**
+     * ✅ Listado paginado por cursor: ?cursor=&size=&sort=&fields=
+     * ✅ ?unpaged=true devuelve la lista completa, escrita fila por fila desde un cursor (sólo bajo opt-in)
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<DoctorResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de doctores", service.findAll()));
+    @ConditionalGet({DOCTORS, SPECIALTIES})
+    public ResponseEntity<ApiResponse<?>> findAll(
+            PageQuery page,
+            FieldsQuery fields,
+            @RequestParam(defaultValue = "false") boolean unpaged
+    ) {
+        if (unpaged) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de doctores", RowStream.of(sink -> service.streamAll(fields, sink))));
+        }
+        return ResponseEntity.ok(ApiResponse.ok("Lista de doctores", service.findPage(page, fields)));
+    }
+
+    /**
+     * ✅ Búsqueda multi-campo paginada por cursor
+     * Endpoint: GET /api/doctors/search?name=&email=&phone=...&cursor=&size=&sort=
+     */
+    @GetMapping("/search")
+    @ConditionalGet({DOCTORS, SPECIALTIES})
+    public ResponseEntity<ApiResponse<CursorPage<DoctorResponse>>> search(DoctorSearchCriteria criteria, PageQuery page, FieldsQuery fields) {
+        return ResponseEntity.ok(ApiResponse.ok("Resultados de búsqueda de doctores", service.search(criteria, page, fields)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<DoctorResponse>> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.ok("Doctor encontrado", service.findById(id)));
+    @ConditionalGet({DOCTORS, SPECIALTIES})
+    public ResponseEntity<ApiResponse<DoctorResponse>> findById(@PathVariable Long id, FieldsQuery fields) {
+        return ResponseEntity.ok(ApiResponse.ok("Doctor encontrado", service.findById(id, fields)));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<ApiResponse<Void>> delete(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        service.delete(id, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Doctor eliminado correctamente", null));
     }
 }
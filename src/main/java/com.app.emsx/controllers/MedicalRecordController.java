@@ -1,16 +1,20 @@
 package com.app.emsx.controllers;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.idempotency.Idempotent;
+import com.app.emsx.common.pagination.PageQuery;
+import com.app.emsx.common.streaming.RowStream;
 import com.app.emsx.dtos.medicalrecord.MedicalRecordRequest;
 import com.app.emsx.dtos.medicalrecord.MedicalRecordResponse;
 import com.app.emsx.services.MedicalRecordService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/medical-records")
 @RequiredArgsConstructor
@@ -18,6 +22,7 @@ public class MedicalRecordController {
 
     private final MedicalRecordService service;
 
+    @Idempotent
     @PostMapping
     public ResponseEntity<ApiResponse<MedicalRecordResponse>> create(@Valid @RequestBody MedicalRecordRequest request) {
         MedicalRecordResponse created = service.create(request);
@@ -27,25 +32,40 @@ public class MedicalRecordController {
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<MedicalRecordResponse>> update(
             @PathVariable Long id,
-            @Valid @RequestBody MedicalRecordRequest request
+            @Valid @RequestBody MedicalRecordRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        MedicalRecordResponse updated = service.update(id, request);
+        MedicalRecordResponse updated = service.update(id, request, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Historia médica actualizada correctamente", updated));
     }
 
+    /**
+     * ✅ Listado paginado por cursor: ?cursor=&size=&sort=&fields=
+     * ✅ ?unpaged=true devuelve la lista completa, escrita fila por fila desde un cursor (sólo bajo opt-in)
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<MedicalRecordResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de historias médicas", service.findAll()));
+    public ResponseEntity<ApiResponse<?>> findAll(
+            PageQuery page,
+            FieldsQuery fields,
+            @RequestParam(defaultValue = "false") boolean unpaged
+    ) {
+        if (unpaged) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de historias médicas", RowStream.of(sink -> service.streamAll(fields, sink))));
+        }
+        return ResponseEntity.ok(ApiResponse.ok("Lista de historias médicas", service.findPage(page, fields)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<MedicalRecordResponse>> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.ok("Historia médica encontrada", service.findById(id)));
+    public ResponseEntity<ApiResponse<MedicalRecordResponse>> findById(@PathVariable Long id, FieldsQuery fields) {
+        return ResponseEntity.ok(ApiResponse.ok("Historia médica encontrada", service.findById(id, fields)));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<ApiResponse<Void>> delete(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        service.delete(id, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Historia médica eliminada correctamente", null));
     }
 }
@@ -1,15 +1,25 @@
 package com.app.emsx.controllers;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.idempotency.Idempotent;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
+import com.app.emsx.common.streaming.RowStream;
+import com.app.emsx.dtos.patient.PatientImportReport;
 import com.app.emsx.dtos.patient.PatientRequest;
 import com.app.emsx.dtos.patient.PatientResponse;
+import com.app.emsx.dtos.patient.PatientSearchCriteria;
+import com.app.emsx.services.PatientImportService;
 import com.app.emsx.services.PatientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/patients")
@@ -17,35 +27,77 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService service;
+    private final PatientImportService importService;
 
+    @Idempotent
     @PostMapping
     public ResponseEntity<ApiResponse<PatientResponse>> create(@Valid @RequestBody PatientRequest request) {
         PatientResponse created = service.create(request);
         return ResponseEntity.ok(ApiResponse.ok("Paciente creado correctamente", created));
     }
 
+    /**
+     * ✅ Importación masiva (text/csv con encabezado o application/x-ndjson)
+     * El cuerpo se procesa en streaming; las filas inválidas se informan sin abortar.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<PatientImportReport>> importPatients(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        PatientImportReport report = importService.importPatients(body, contentType);
+        return ResponseEntity.ok(ApiResponse.ok("Importación de pacientes finalizada", report));
+    }
+
+    /**
+     * ✅ If-Match opcional con la versión leída (campo version): si el paciente cambió
+     * desde entonces responde 409 en lugar de pisar el cambio ajeno
+     */
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<PatientResponse>> update(
             @PathVariable Long id,
-            @Valid @RequestBody PatientRequest request
+            @Valid @RequestBody PatientRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        PatientResponse updated = service.update(id, request);
+        PatientResponse updated = service.update(id, request, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Paciente actualizado correctamente", updated));
     }
 
+    /**
+     * ✅ Listado paginado por cursor: ?cursor=&size=&sort=&fields=
+     * ✅ ?unpaged=true devuelve la lista completa, escrita fila por fila desde un cursor (sólo bajo opt-in)
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<PatientResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de pacientes", service.findAll()));
+    public ResponseEntity<ApiResponse<?>> findAll(
+            PageQuery page,
+            FieldsQuery fields,
+            @RequestParam(defaultValue = "false") boolean unpaged
+    ) {
+        if (unpaged) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de pacientes", RowStream.of(sink -> service.streamAll(fields, sink))));
+        }
+        return ResponseEntity.ok(ApiResponse.ok("Lista de pacientes", service.findPage(page, fields)));
+    }
+
+    /**
+     * ✅ Búsqueda multi-campo paginada por cursor
+     * Endpoint: GET /api/patients/search?name=&email=&phone=...&cursor=&size=&sort=
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<CursorPage<PatientResponse>>> search(PatientSearchCriteria criteria, PageQuery page, FieldsQuery fields) {
+        return ResponseEntity.ok(ApiResponse.ok("Resultados de búsqueda de pacientes", service.search(criteria, page, fields)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<PatientResponse>> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.ok("Paciente encontrado", service.findById(id)));
+    public ResponseEntity<ApiResponse<PatientResponse>> findById(@PathVariable Long id, FieldsQuery fields) {
+        return ResponseEntity.ok(ApiResponse.ok("Paciente encontrado", service.findById(id, fields)));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<ApiResponse<Void>> delete(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        service.delete(id, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Paciente eliminado correctamente", null));
     }
 }
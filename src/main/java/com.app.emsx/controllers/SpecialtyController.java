@@ -1,15 +1,22 @@
 package com.app.emsx.controllers;
 
 import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.idempotency.Idempotent;
+import com.app.emsx.common.etag.ConditionalGet;
+import com.app.emsx.common.pagination.PageQuery;
+import com.app.emsx.common.streaming.RowStream;
 import com.app.emsx.dtos.specialty.SpecialtyRequest;
 import com.app.emsx.dtos.specialty.SpecialtyResponse;
 import com.app.emsx.services.SpecialtyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import static com.app.emsx.repositories.TableVersionRepository.*;
 
 @RestController
 @RequestMapping("/api/specialties")
@@ -18,6 +25,7 @@ public class SpecialtyController {
 
     private final SpecialtyService service;
 
+    @Idempotent
     @PostMapping
     public ResponseEntity<ApiResponse<SpecialtyResponse>> create(@Valid @RequestBody SpecialtyRequest request) {
         SpecialtyResponse created = service.create(request);
@@ -27,25 +35,42 @@ public class SpecialtyController {
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<SpecialtyResponse>> update(
             @PathVariable Long id,
-            @Valid @RequestBody SpecialtyRequest request
+            @Valid @RequestBody SpecialtyRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        SpecialtyResponse updated = service.update(id, request);
+        SpecialtyResponse updated = service.update(id, request, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Especialidad actualizada correctamente", updated));
     }
 
+    /**
+     * ✅ Listado paginado por cursor: ?cursor=&size=&sort=&fields=
+     * ✅ ?unpaged=true devuelve la lista completa, escrita fila por fila desde un cursor (sólo bajo opt-in)
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<SpecialtyResponse>>> findAll() {
-        return ResponseEntity.ok(ApiResponse.ok("Lista de especialidades", service.findAll()));
+    @ConditionalGet(SPECIALTIES)
+    public ResponseEntity<ApiResponse<?>> findAll(
+            PageQuery page,
+            FieldsQuery fields,
+            @RequestParam(defaultValue = "false") boolean unpaged
+    ) {
+        if (unpaged) {
+            return ResponseEntity.ok(ApiResponse.ok("Lista de especialidades", RowStream.of(sink -> service.streamAll(fields, sink))));
+        }
+        return ResponseEntity.ok(ApiResponse.ok("Lista de especialidades", service.findPage(page, fields)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<SpecialtyResponse>> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.ok("Especialidad encontrada", service.findById(id)));
+    @ConditionalGet(SPECIALTIES)
+    public ResponseEntity<ApiResponse<SpecialtyResponse>> findById(@PathVariable Long id, FieldsQuery fields) {
+        return ResponseEntity.ok(ApiResponse.ok("Especialidad encontrada", service.findById(id, fields)));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable Long id) {
-        service.delete(id);
+    public ResponseEntity<ApiResponse<Void>> delete(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        service.delete(id, IfMatch.version(ifMatch));
         return ResponseEntity.ok(ApiResponse.ok("Especialidad eliminada correctamente", null));
     }
 }
@@ -0,0 +1,42 @@
+package com.app.emsx.controllers;
+
+import com.app.emsx.common.ApiResponse;
+import com.app.emsx.common.streaming.RowStream;
+import com.app.emsx.dtos.sync.SyncResponse;
+import com.app.emsx.dtos.sync.SyncWindow;
+import com.app.emsx.services.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService service;
+
+    /**
+     * ✅ Sincronización delta: GET /api/sync?token=
+     * Sin token devuelve todo (full=true); con el token de la respuesta anterior sólo los registros
+     * creados o modificados desde entonces y los ids eliminados (deleted). Las filas pueden
+     * repetirse entre llamadas: el cliente las aplica por id (upsert) y después las bajas.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<SyncResponse>> sync(@RequestParam(required = false) String token) {
+        SyncWindow window = service.open(token);
+        Long since = window.getSince();
+        SyncResponse changes = SyncResponse.builder()
+                .token(window.getToken())
+                .full(window.isFull())
+                .patients(RowStream.of(sink -> service.streamPatients(since, sink)))
+                .doctors(RowStream.of(sink -> service.streamDoctors(since, sink)))
+                .specialties(RowStream.of(sink -> service.streamSpecialties(since, sink)))
+                .appointments(RowStream.of(sink -> service.streamAppointments(since, sink)))
+                .consultations(RowStream.of(sink -> service.streamConsultations(since, sink)))
+                .medicalRecords(RowStream.of(sink -> service.streamMedicalRecords(since, sink)))
+                .deleted(window.getDeleted())
+                .build();
+        return ResponseEntity.ok(ApiResponse.ok("Cambios desde la última sincronización", changes));
+    }
+}
@@ -1,5 +1,6 @@
 package com.app.emsx.controllers.auth;
 
+import com.app.emsx.common.ApiResponse;
 import com.app.emsx.dtos.auth.AuthenticationRequest;
 import com.app.emsx.dtos.auth.AuthenticationResponse;
 import com.app.emsx.dtos.auth.RegisterRequest;
@@ -8,6 +9,7 @@ import com.app.emsx.repositories.UserRepository;
 import com.app.emsx.serviceimpls.AuthServiceImpl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
  * ✔ /register → registra un nuevo usuario
  * ✔ /login → devuelve token y datos del usuario
  * ✔ /me → devuelve el usuario autenticado (JWT requerido)
+ * ✔ /logout → revoca el token actual (JWT requerido)
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -47,6 +50,16 @@ public class AuthController {
         return ResponseEntity.ok(authService.authenticate(request));
     }
 
+    /**
+     * ✅ Logout: revoca el token enviado en Authorization
+     * Endpoint: POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
+        authService.logout(authHeader.substring("Bearer ".length()));
+        return ResponseEntity.ok(ApiResponse.ok("Sesión cerrada correctamente", null));
+    }
+
     /**
      * ✅ Devuelve los datos del usuario autenticado según el token JWT
      * Endpoint: GET /api/auth/me
@@ -0,0 +1,25 @@
+package com.app.emsx.dtos.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AppointmentCalendarQuery
+ * -----------------------------------------------------
+ * ✔ Filtros de /api/appointments/calendar
+ * ✔ from es obligatorio; to es opcional (por defecto = from, un solo día)
+ * ✔ Fechas ISO (yyyy-MM-dd); doctorId, patientId y status son opcionales
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentCalendarQuery {
+    private Long doctorId;
+    private Long patientId;
+    private String status;
+    private String from;
+    private String to;
+}
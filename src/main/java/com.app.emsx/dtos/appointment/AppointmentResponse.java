@@ -1,14 +1,20 @@
 package com.app.emsx.dtos.appointment;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(FieldsQuery.FILTER)
 public class AppointmentResponse {
 
     private Long id;
@@ -23,4 +29,26 @@ public class AppointmentResponse {
     private String time;
     private String reason;
     private String status;
+
+    // Versión de la fila (@Version): el cliente la reenvía en If-Match para no pisar cambios ajenos
+    private Long version;
+
+    // Constructor de proyección (JPQL/Criteria "new"): arma los nombres y formatea fecha/hora
+    // igual que AppointmentMapper.toResponse, sin cargar entidades
+    public AppointmentResponse(Long id,
+                               Long patientId, String patientFirstName, String patientLastName,
+                               Long doctorId, String doctorFirstName, String doctorLastName,
+                               LocalDate date, LocalTime time, String reason, String status,
+                               Long version) {
+        this.id = id;
+        this.patientId = patientId;
+        this.patientName = patientFirstName + " " + patientLastName;
+        this.doctorId = doctorId;
+        this.doctorName = "Dr. " + doctorFirstName + " " + doctorLastName;
+        this.date = date != null ? date.toString() : null;
+        this.time = time != null ? time.toString() : null;
+        this.reason = reason;
+        this.status = status;
+        this.version = version;
+    }
 }
@@ -0,0 +1,29 @@
+package com.app.emsx.dtos.batch;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOperation {
+
+    // Identificador elegido por el cliente para reconocer la respuesta (por defecto, la posición)
+    private String id;
+
+    // Sólo GET: las lecturas son independientes y pueden correr en paralelo
+    private String method;
+
+    // Ruta con query string, p. ej. /api/appointments/5 o /api/doctors?size=20
+    @NotBlank(message = "La ruta es obligatoria")
+    private String path;
+
+    // Headers propios de la solicitud (p. ej. If-None-Match); la autenticación es la del lote
+    private Map<String, String> headers;
+}
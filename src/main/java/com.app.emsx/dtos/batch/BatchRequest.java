@@ -0,0 +1,22 @@
+package com.app.emsx.dtos.batch;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchRequest {
+
+    // El máximo por lote lo define batch.max-requests (validado en BatchDispatcher)
+    @NotEmpty(message = "El lote debe tener al menos una solicitud")
+    @Valid
+    private List<BatchOperation> requests;
+}
@@ -0,0 +1,18 @@
+package com.app.emsx.dtos.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResponse {
+
+    // Mismo orden que las solicitudes del lote
+    private List<BatchResult> responses;
+}
@@ -0,0 +1,24 @@
+package com.app.emsx.dtos.batch;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResult {
+
+    private String id;
+    private int status;
+    private Map<String, String> headers;
+
+    // Cuerpo JSON de la respuesta tal como lo escribió el controlador (null si vino vacío, p. ej. 304)
+    @JsonRawValue
+    private String body;
+}
@@ -1,5 +1,7 @@
 package com.app.emsx.dtos.consultation;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(FieldsQuery.FILTER)
 public class ConsultationResponse {
 
     private Long id;
@@ -17,4 +20,6 @@ public class ConsultationResponse {
     private Long medicalRecordId;
 
     private String notes;
+
+    private Long version;
 }
@@ -0,0 +1,16 @@
+package com.app.emsx.dtos.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyCount {
+
+    private String date; // ISO yyyy-MM-dd
+    private long appointments;
+}
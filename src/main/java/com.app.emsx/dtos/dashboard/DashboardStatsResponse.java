@@ -0,0 +1,28 @@
+package com.app.emsx.dtos.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardStatsResponse {
+
+    private long patients;
+    private long doctors;
+    private long appointments;
+
+    // SCHEDULED / COMPLETED / CANCELLED (NONE = cita sin estado)
+    private Map<String, Long> appointmentsByStatus;
+
+    private List<SpecialtyCount> appointmentsBySpecialty;
+
+    // Citas por fecha programada, un punto por día (días sin citas = 0)
+    private List<DailyCount> trend;
+}
@@ -0,0 +1,17 @@
+package com.app.emsx.dtos.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpecialtyCount {
+
+    private Long specialtyId;
+    private String specialtyName;
+    private long appointments;
+}
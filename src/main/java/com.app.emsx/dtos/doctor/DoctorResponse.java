@@ -1,5 +1,7 @@
 package com.app.emsx.dtos.doctor;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(FieldsQuery.FILTER)
 public class DoctorResponse {
 
     private Long id;
@@ -19,4 +22,6 @@ public class DoctorResponse {
 
     private Long specialtyId;
     private String specialtyName;
+
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package com.app.emsx.dtos.doctor;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DoctorSearchCriteria
+ * -----------------------------------------------------
+ * ✔ Filtros de /api/doctors/search (todos opcionales, se combinan con AND)
+ * ✔ name: prefijo de nombre o apellido, sin distinguir mayúsculas (ej: "ana gar")
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoctorSearchCriteria {
+    private String name;
+    private String email;
+    private String phone;
+    private Long specialtyId;
+}
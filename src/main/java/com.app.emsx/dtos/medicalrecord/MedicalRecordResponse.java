@@ -1,5 +1,7 @@
 package com.app.emsx.dtos.medicalrecord;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(FieldsQuery.FILTER)
 public class MedicalRecordResponse {
 
     private Long id;
@@ -19,4 +22,19 @@ public class MedicalRecordResponse {
     private String diagnosis;
     private String treatment;
     private String notes;
+
+    private Long version;
+
+    // Constructor de proyección (Criteria "new"): arma el nombre del paciente
+    // igual que MedicalRecordMapper.toResponse, sin cargar entidades
+    public MedicalRecordResponse(Long id, Long patientId, String patientFirstName, String patientLastName,
+                                 String diagnosis, String treatment, String notes, Long version) {
+        this.id = id;
+        this.patientId = patientId;
+        this.patientName = patientFirstName + " " + patientLastName;
+        this.diagnosis = diagnosis;
+        this.treatment = treatment;
+        this.notes = notes;
+        this.version = version;
+    }
 }
@@ -0,0 +1,17 @@
+package com.app.emsx.dtos.patient;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientImportError {
+
+    private long line;      // línea del archivo (1 = encabezado en CSV)
+    private String email;   // para ubicar la fila en el archivo original
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.app.emsx.dtos.patient;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientImportReport {
+
+    private long totalRows;
+    private long imported;
+    private long failed;
+
+    // Detalle por fila rechazada (acotado; errorsTruncated = hay más de las listadas)
+    private List<PatientImportError> errors;
+    private boolean errorsTruncated;
+}
@@ -1,14 +1,19 @@
 package com.app.emsx.dtos.patient;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(FieldsQuery.FILTER)
 public class PatientResponse {
 
     private Long id;
@@ -18,4 +23,14 @@ public class PatientResponse {
     private String phone;
     private String address;
     private String dateOfBirth; // representada como String ISO en la capa DTO
+
+    // Versión para If-Match (bloqueo optimista)
+    private Long version;
+
+    // Constructor de proyección (Criteria "new"): formatea la fecha igual que PatientMapper.toResponse
+    public PatientResponse(Long id, String firstName, String lastName, String email,
+                           String phone, String address, LocalDate dateOfBirth, Long version) {
+        this(id, firstName, lastName, email, phone, address,
+                dateOfBirth != null ? dateOfBirth.toString() : null, version);
+    }
 }
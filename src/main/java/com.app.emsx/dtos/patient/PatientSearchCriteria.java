@@ -0,0 +1,25 @@
+package com.app.emsx.dtos.patient;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * PatientSearchCriteria
+ * -----------------------------------------------------
+ * ✔ Filtros de /api/patients/search (todos opcionales, se combinan con AND)
+ * ✔ name: prefijo de nombre o apellido, sin distinguir mayúsculas (ej: "ana lo")
+ * ✔ bornFrom / bornTo: rango de fecha de nacimiento ISO (yyyy-MM-dd), inclusivo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientSearchCriteria {
+    private String name;
+    private String email;
+    private String phone;
+    private String bornFrom;
+    private String bornTo;
+}
@@ -1,5 +1,7 @@
 package com.app.emsx.dtos.specialty;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,9 +11,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(FieldsQuery.FILTER)
 public class SpecialtyResponse {
 
     private Long id;
     private String name;
     private String description;
+
+    private Long version;
 }
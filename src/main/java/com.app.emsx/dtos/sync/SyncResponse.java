@@ -0,0 +1,37 @@
+package com.app.emsx.dtos.sync;
+
+import com.app.emsx.common.streaming.RowStream;
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.app.emsx.dtos.consultation.ConsultationResponse;
+import com.app.emsx.dtos.doctor.DoctorResponse;
+import com.app.emsx.dtos.medicalrecord.MedicalRecordResponse;
+import com.app.emsx.dtos.patient.PatientResponse;
+import com.app.emsx.dtos.specialty.SpecialtyResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncResponse {
+
+    private String token;
+    private boolean full;
+
+    // Altas y modificaciones (registro completo); se escriben fila por fila desde un cursor
+    private RowStream<PatientResponse> patients;
+    private RowStream<DoctorResponse> doctors;
+    private RowStream<SpecialtyResponse> specialties;
+    private RowStream<AppointmentResponse> appointments;
+    private RowStream<ConsultationResponse> consultations;
+    private RowStream<MedicalRecordResponse> medicalRecords;
+
+    // Bajas: ids eliminados por colección (sólo las colecciones con bajas)
+    private Map<String, List<Long>> deleted;
+}
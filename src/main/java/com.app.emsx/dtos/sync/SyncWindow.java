@@ -0,0 +1,24 @@
+package com.app.emsx.dtos.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ventana de una sincronización: desde qué transacción leer, el token siguiente y las bajas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncWindow {
+
+    private Long since;                     // null = sincronización completa
+    private String token;                   // token para la próxima llamada
+    private boolean full;                   // el cliente debe reemplazar sus datos locales
+    private Map<String, List<Long>> deleted;
+}
@@ -1,15 +1,30 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.entities.listeners.DashboardCounterListener;
+import com.app.emsx.entities.listeners.SyncTombstoneListener;
+import com.app.emsx.entities.listeners.TableVersionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        // Soporta el orden keyset de los listados paginados
+        @Index(name = "idx_appointments_date_time", columnList = "date, time, id"),
+        // Vistas de calendario por doctor o por paciente en un rango de fechas
+        @Index(name = "idx_appointments_doctor_date", columnList = "doctor_id, date, time"),
+        @Index(name = "idx_appointments_patient_date", columnList = "patient_id, date, time"),
+        // Cambios desde un token de /api/sync
+        @Index(name = "idx_appointments_change_txid", columnList = "change_txid")
+})
+@EntityListeners({DashboardCounterListener.class, TableVersionListener.class, SyncTombstoneListener.class})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -19,22 +34,58 @@ public class Appointment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ColumnDefault(ChangeTracking.CURRENT_TXID_DEFAULT)
+    @Column(name = ChangeTracking.COLUMN, nullable = false, insertable = false, updatable = false)
+    private Long changeTxid;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
 
-    @Column(columnDefinition = "DATE")
+    // Claves de orden del keyset ("date"): NOT NULL
+    @Column(columnDefinition = "DATE", nullable = false)
     private LocalDate date;
 
+    @Column(nullable = false)
     private LocalTime time;
 
     private String reason;
     private String status;
 
+    // Lado inverso del 1-1: Hibernate no puede diferirlo (siempre consulta si existe),
+    // por eso los planes de carga de AppointmentRepository lo traen con LEFT JOIN
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToOne(mappedBy = "appointment", cascade = CascadeType.ALL, orphanRemoval = true)
     private Consultation consultation;
+
+    // Estado leído de la BD (DashboardCounterListener): permite calcular los deltas
+    // de los contadores del dashboard al actualizar o eliminar
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String loadedStatus;
+
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LocalDate loadedDate;
+
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Long loadedDoctorId;
 }
@@ -0,0 +1,27 @@
+package com.app.emsx.entities;
+
+/**
+ * ChangeTracking
+ * -----------------------------------------------------
+ * ✔ Columna change_txid de las entidades sincronizables (/api/sync): id de la transacción
+ *   de PostgreSQL (xid8, 64 bits, creciente) que escribió la fila por última vez
+ * ✔ La escribe la propia BD: un trigger BEFORE INSERT OR UPDATE (schema-postgresql.sql)
+ *   cubre JPA y JDBC; Hibernate no la inserta ni la actualiza (tampoco usa RETURNING,
+ *   así un UPDATE con versión vencida sigue fallando como conflicto optimista)
+ * ✔ Si cambia un nombre que otro DTO muestra (paciente, doctor, especialidad), el trigger
+ *   del padre también marca a los hijos: la consulta delta filtra una sola columna indexada
+ * ✔ Un token de sincronización guarda el xmin de la instantánea de lectura: toda escritura
+ *   no visible en esa lectura tiene change_txid >= xmin, así ninguna se pierde por orden de commit
+ */
+public final class ChangeTracking {
+
+    public static final String COLUMN = "change_txid";
+
+    public static final String CURRENT_TXID = "pg_current_xact_id()::text::bigint";
+
+    // DEFAULT de la columna (filas existentes al agregarla)
+    public static final String CURRENT_TXID_DEFAULT = "(" + CURRENT_TXID + ")";
+
+    private ChangeTracking() {
+    }
+}
@@ -1,12 +1,20 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.entities.listeners.SyncTombstoneListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "consultations")
+@Table(name = "consultations", indexes = {
+        // Cambios desde un token de /api/sync
+        @Index(name = "idx_consultations_change_txid", columnList = "change_txid")
+})
+@EntityListeners(SyncTombstoneListener.class)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,11 +24,24 @@ public class Consultation {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ColumnDefault(ChangeTracking.CURRENT_TXID_DEFAULT)
+    @Column(name = ChangeTracking.COLUMN, nullable = false, insertable = false, updatable = false)
+    private Long changeTxid;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "appointment_id", nullable = false)
     private Appointment appointment;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "medical_record_id", nullable = false)
     private MedicalRecord medicalRecord;
 
@@ -1,16 +1,36 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.entities.listeners.DashboardCounterListener;
+import com.app.emsx.entities.listeners.SyncTombstoneListener;
+import com.app.emsx.entities.listeners.TableVersionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "doctors")
+@Table(name = "doctors", indexes = {
+        // Soporta el orden keyset de los listados paginados
+        @Index(name = "idx_doctors_name", columnList = "last_name, first_name, id"),
+        // Filtros exactos de /api/doctors/search
+        @Index(name = "idx_doctors_phone", columnList = "phone"),
+        @Index(name = "idx_doctors_specialty", columnList = "specialty_id"),
+        // Cambios desde un token de /api/sync
+        @Index(name = "idx_doctors_change_txid", columnList = "change_txid")
+})
+@EntityListeners({DashboardCounterListener.class, TableVersionListener.class, SyncTombstoneListener.class})
+// Catálogo de doctores: caché de segundo nivel (TTL y tamaño en hibernate-cache.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -20,16 +40,39 @@ public class Doctor {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ColumnDefault(ChangeTracking.CURRENT_TXID_DEFAULT)
+    @Column(name = ChangeTracking.COLUMN, nullable = false, insertable = false, updatable = false)
+    private Long changeTxid;
+
+    // Claves de orden del keyset ("name"): NOT NULL
+    @Column(nullable = false)
     private String firstName;
+    @Column(nullable = false)
     private String lastName;
     private String email;
     private String phone;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "specialty_id")
     private Specialty specialty;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Appointment> appointments = new ArrayList<>();
+
+    // Especialidad leída de la BD (DashboardCounterListener): al cambiarla, sus citas
+    // se mueven de especialidad en los contadores del dashboard
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Long loadedSpecialtyId;
 }
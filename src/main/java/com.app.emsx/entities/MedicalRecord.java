@@ -1,15 +1,25 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.entities.listeners.SyncTombstoneListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "medical_records")
+@Table(name = "medical_records", indexes = {
+        // Historias de un paciente (y el marcado de cambios al renombrarlo, ver ChangeTracking)
+        @Index(name = "idx_medical_records_patient", columnList = "patient_id"),
+        // Cambios desde un token de /api/sync
+        @Index(name = "idx_medical_records_change_txid", columnList = "change_txid")
+})
+@EntityListeners(SyncTombstoneListener.class)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -19,7 +29,18 @@ public class MedicalRecord {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ColumnDefault(ChangeTracking.CURRENT_TXID_DEFAULT)
+    @Column(name = ChangeTracking.COLUMN, nullable = false, insertable = false, updatable = false)
+    private Long changeTxid;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
@@ -32,6 +53,8 @@ public class MedicalRecord {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "medicalRecord", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Consultation> consultations = new ArrayList<>();
 }
@@ -1,9 +1,15 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.entities.listeners.DashboardCounterListener;
+import com.app.emsx.entities.listeners.SyncTombstoneListener;
+import com.app.emsx.entities.listeners.TableVersionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDate;
@@ -11,17 +17,47 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+        // Soporta el orden keyset de los listados paginados
+        @Index(name = "idx_patients_name", columnList = "last_name, first_name, id"),
+        // Filtros exactos y por rango de /api/patients/search
+        @Index(name = "idx_patients_phone", columnList = "phone"),
+        @Index(name = "idx_patients_date_of_birth", columnList = "date_of_birth"),
+        // Cambios desde un token de /api/sync
+        @Index(name = "idx_patients_change_txid", columnList = "change_txid")
+})
+@EntityListeners({DashboardCounterListener.class, TableVersionListener.class, SyncTombstoneListener.class})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Patient {
 
+    // Ids por secuencia con bloques de 50 (optimizador pooled): Hibernate puede agrupar
+    // los INSERT en lotes y la importación masiva reserva bloques con un solo nextval
+    public static final String ID_SEQUENCE = "patients_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // Bloqueo optimista: cada UPDATE/DELETE incluye "AND version = ?" y la incrementa;
+    // las filas creadas antes de la columna arrancan en 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Última transacción que escribió la fila (sincronización delta, ver ChangeTracking)
+    @ColumnDefault(ChangeTracking.CURRENT_TXID_DEFAULT)
+    @Column(name = ChangeTracking.COLUMN, nullable = false, insertable = false, updatable = false)
+    private Long changeTxid;
+
+    // Claves de orden del keyset ("name"): NOT NULL
+    @Column(nullable = false)
     private String firstName;
+    @Column(nullable = false)
     private String lastName;
     private String email;
     private String phone;
@@ -32,10 +68,14 @@ public class Patient {
     @Column(name = "date_of_birth", columnDefinition = "DATE")
     private LocalDate dateOfBirth;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<MedicalRecord> medicalRecords = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Appointment> appointments = new ArrayList<>();
@@ -1,15 +1,32 @@
 package com.app.emsx.entities;
 
+import com.app.emsx.entities.listeners.DashboardCounterListener;
+import com.app.emsx.entities.listeners.SyncTombstoneListener;
+import com.app.emsx.entities.listeners.TableVersionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "specialties")
+@Table(name = "specialties", indexes = {
+        // Soporta el orden keyset de los listados paginados
+        @Index(name = "idx_specialties_name", columnList = "name, id"),
+        // Cambios desde un token de /api/sync
+        @Index(name = "idx_specialties_change_txid", columnList = "change_txid")
+})
+@EntityListeners({DashboardCounterListener.class, TableVersionListener.class, SyncTombstoneListener.class})
+// Catálogo casi estático: caché de segundo nivel (TTL y tamaño en hibernate-cache.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "specialties")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -19,11 +36,24 @@ public class Specialty {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ColumnDefault(ChangeTracking.CURRENT_TXID_DEFAULT)
+    @Column(name = ChangeTracking.COLUMN, nullable = false, insertable = false, updatable = false)
+    private Long changeTxid;
+
+    // Clave de orden del keyset ("name"): NOT NULL
+    @Column(nullable = false)
     private String name;
 
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "specialty", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Doctor> doctors = new ArrayList<>();
 }
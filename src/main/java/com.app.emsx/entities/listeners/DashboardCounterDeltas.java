@@ -0,0 +1,133 @@
+package com.app.emsx.entities.listeners;
+
+import com.app.emsx.repositories.DashboardCounterRepository;
+import com.app.emsx.repositories.DashboardCounterRepository.Counter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * DashboardCounterDeltas
+ * -----------------------------------------------------
+ * ✔ Acumula los deltas de dashboard_counters de la transacción en curso
+ *   (DashboardCounterListener) en lugar de escribirlos uno a uno durante el flush
+ * ✔ apply() los suma al final, justo antes del COMMIT (DashboardCounterInterceptor):
+ *   un solo UPSERT en orden de PK → las filas se bloquean siempre en el mismo orden
+ *   y sólo durante el commit (la fila caliente ('appointments','') no frena la transacción)
+ * ✔ Deltas opuestos de la misma transacción se cancelan y no tocan la tabla
+ * ✔ Sin transacción de Spring activa se escribe directo (comportamiento anterior)
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterDeltas {
+
+    private final DashboardCounterRepository counters;
+
+    public void add(String metric, String bucket, long delta) {
+        Pending pending = pending();
+        if (pending == null) {
+            counters.add(metric, bucket, delta);
+            return;
+        }
+        pending.deltas.merge(new Counter(metric, bucket), delta, Long::sum);
+    }
+
+    /**
+     * Delta del bucket de la especialidad del doctor; la especialidad se resuelve ya
+     * (el doctor puede borrarse más adelante en la misma transacción)
+     */
+    public void addToDoctorSpecialty(Long doctorId, long delta) {
+        Pending pending = pending();
+        Long specialtyId = pending != null
+                ? pending.specialties.computeIfAbsent(doctorId, counters::findDoctorSpecialtyId)
+                : counters.findDoctorSpecialtyId(doctorId);
+        if (specialtyId != null) {
+            add(DashboardCounterRepository.APPOINTMENTS_BY_SPECIALTY, String.valueOf(specialtyId), delta);
+        }
+    }
+
+    /**
+     * Borra el bucket al aplicar (descarta los deltas pendientes del mismo bucket)
+     */
+    public void remove(String metric, String bucket) {
+        Pending pending = pending();
+        if (pending == null) {
+            counters.remove(metric, bucket);
+            return;
+        }
+        Counter counter = new Counter(metric, bucket);
+        pending.deltas.remove(counter);
+        pending.removed.add(counter);
+    }
+
+    /**
+     * Valor guardado más lo pendiente de esta transacción
+     */
+    public long get(String metric, String bucket) {
+        Pending pending = pending();
+        long staged = pending != null ? pending.deltas.getOrDefault(new Counter(metric, bucket), 0L) : 0L;
+        return counters.get(metric, bucket) + staged;
+    }
+
+    /**
+     * ✅ Escribe lo acumulado en la transacción (una vez por commit, después del último flush)
+     */
+    public void apply() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) return;
+
+        SortedMap<Counter, Long> deltas = new TreeMap<>();
+        pending.deltas.forEach((counter, delta) -> {
+            if (delta != 0) deltas.put(counter, delta);
+        });
+        counters.apply(deltas);
+        for (Counter counter : pending.removed) {
+            counters.remove(counter.metric(), counter.bucket());
+        }
+        pending.deltas.clear();
+        pending.removed.clear();
+    }
+
+    // Acumulador ligado a la transacción; se libera al terminar (commit o rollback)
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending bound = new Pending();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            // Una transacción REQUIRES_NEW suspende a la actual: su acumulador se aparta mientras tanto
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(DashboardCounterDeltas.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(DashboardCounterDeltas.this, bound);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DashboardCounterDeltas.this);
+                }
+            });
+            pending = bound;
+        }
+        return pending;
+    }
+
+    private static final class Pending {
+        private final Map<Counter, Long> deltas = new HashMap<>();
+        private final TreeSet<Counter> removed = new TreeSet<>();
+        private final Map<Long, Long> specialties = new HashMap<>();
+    }
+}
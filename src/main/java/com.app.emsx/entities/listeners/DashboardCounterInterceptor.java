@@ -0,0 +1,26 @@
+package com.app.emsx.entities.listeners;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Interceptor;
+import org.hibernate.Transaction;
+
+/**
+ * DashboardCounterInterceptor
+ * -----------------------------------------------------
+ * ✔ Interceptor de Hibernate que aplica lo acumulado en la transacción: deltas de
+ *   dashboard_counters y versiones de table_versions (siempre en ese orden)
+ * ✔ beforeTransactionCompletion corre después del flush final y antes del COMMIT,
+ *   en la misma conexión: un error ahí hace rollback de toda la transacción
+ */
+@RequiredArgsConstructor
+public class DashboardCounterInterceptor implements Interceptor {
+
+    private final DashboardCounterDeltas deltas;
+    private final TableVersionBumps versions;
+
+    @Override
+    public void beforeTransactionCompletion(Transaction tx) {
+        deltas.apply();
+        versions.apply();
+    }
+}
@@ -0,0 +1,139 @@
+package com.app.emsx.entities.listeners;
+
+import com.app.emsx.entities.Appointment;
+import com.app.emsx.entities.Doctor;
+import com.app.emsx.entities.Patient;
+import com.app.emsx.entities.Specialty;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import static com.app.emsx.repositories.DashboardCounterRepository.*;
+
+/**
+ * DashboardCounterListener
+ * -----------------------------------------------------
+ * ✔ Mantiene dashboard_counters de forma incremental en cada INSERT/UPDATE/DELETE
+ * ✔ Los callbacks Post* corren dentro del flush y acumulan los deltas en
+ *   DashboardCounterDeltas, que los escribe juntos antes del commit: si la transacción
+ *   hace rollback, los contadores no cambian
+ * ✔ @PostLoad guarda el estado leído de la BD para calcular los deltas de un UPDATE
+ *   (y de un DELETE) sin volver a consultar
+ * ✔ Hibernate obtiene la instancia desde Spring (SpringBeanContainer)
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterListener {
+
+    private static final String NO_STATUS = "NONE";
+
+    private final DashboardCounterDeltas deltas;
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        snapshot(entity);
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof Patient) {
+            deltas.add(PATIENTS, TOTAL, 1);
+        } else if (entity instanceof Doctor) {
+            deltas.add(DOCTORS, TOTAL, 1);
+        } else if (entity instanceof Appointment appointment) {
+            deltas.add(APPOINTMENTS, TOTAL, 1);
+            countAppointment(appointment.getStatus(), appointment.getDate(), doctorIdOf(appointment), 1);
+        }
+        snapshot(entity);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Appointment appointment) {
+            String status = appointment.getStatus();
+            LocalDate date = appointment.getDate();
+            Long doctorId = doctorIdOf(appointment);
+            if (!Objects.equals(status, appointment.getLoadedStatus())) {
+                deltas.add(APPOINTMENTS_BY_STATUS, statusBucket(appointment.getLoadedStatus()), -1);
+                deltas.add(APPOINTMENTS_BY_STATUS, statusBucket(status), 1);
+            }
+            if (!Objects.equals(date, appointment.getLoadedDate())) {
+                if (appointment.getLoadedDate() != null) deltas.add(APPOINTMENTS_BY_DAY, appointment.getLoadedDate().toString(), -1);
+                if (date != null) deltas.add(APPOINTMENTS_BY_DAY, date.toString(), 1);
+            }
+            if (!Objects.equals(doctorId, appointment.getLoadedDoctorId())) {
+                moveDoctor(appointment.getLoadedDoctorId(), -1);
+                moveDoctor(doctorId, 1);
+            }
+        } else if (entity instanceof Doctor doctor) {
+            Long specialtyId = doctor.getSpecialty() != null ? doctor.getSpecialty().getId() : null;
+            if (!Objects.equals(specialtyId, doctor.getLoadedSpecialtyId())) {
+                // Las citas del doctor pasan de una especialidad a la otra
+                long appointments = deltas.get(APPOINTMENTS_BY_DOCTOR, String.valueOf(doctor.getId()));
+                if (appointments != 0) {
+                    if (doctor.getLoadedSpecialtyId() != null) {
+                        deltas.add(APPOINTMENTS_BY_SPECIALTY, String.valueOf(doctor.getLoadedSpecialtyId()), -appointments);
+                    }
+                    if (specialtyId != null) {
+                        deltas.add(APPOINTMENTS_BY_SPECIALTY, String.valueOf(specialtyId), appointments);
+                    }
+                }
+            }
+        }
+        snapshot(entity);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Patient) {
+            deltas.add(PATIENTS, TOTAL, -1);
+        } else if (entity instanceof Doctor doctor) {
+            // Sus citas ya se descontaron una a una (cascade) antes del DELETE del doctor
+            deltas.add(DOCTORS, TOTAL, -1);
+            deltas.remove(APPOINTMENTS_BY_DOCTOR, String.valueOf(doctor.getId()));
+        } else if (entity instanceof Specialty specialty) {
+            deltas.remove(APPOINTMENTS_BY_SPECIALTY, String.valueOf(specialty.getId()));
+        } else if (entity instanceof Appointment appointment) {
+            // Se descuenta lo que estaba guardado en la BD, no lo modificado en memoria
+            deltas.add(APPOINTMENTS, TOTAL, -1);
+            countAppointment(appointment.getLoadedStatus(), appointment.getLoadedDate(), appointment.getLoadedDoctorId(), -1);
+        }
+    }
+
+    private void countAppointment(String status, LocalDate date, Long doctorId, long delta) {
+        deltas.add(APPOINTMENTS_BY_STATUS, statusBucket(status), delta);
+        if (date != null) deltas.add(APPOINTMENTS_BY_DAY, date.toString(), delta);
+        moveDoctor(doctorId, delta);
+    }
+
+    private void moveDoctor(Long doctorId, long delta) {
+        if (doctorId == null) return;
+        deltas.add(APPOINTMENTS_BY_DOCTOR, String.valueOf(doctorId), delta);
+        deltas.addToDoctorSpecialty(doctorId, delta);
+    }
+
+    private void snapshot(Object entity) {
+        if (entity instanceof Appointment appointment) {
+            appointment.setLoadedStatus(appointment.getStatus());
+            appointment.setLoadedDate(appointment.getDate());
+            appointment.setLoadedDoctorId(doctorIdOf(appointment));
+        } else if (entity instanceof Doctor doctor) {
+            doctor.setLoadedSpecialtyId(doctor.getSpecialty() != null ? doctor.getSpecialty().getId() : null);
+        }
+    }
+
+    // getId() de un proxy LAZY no dispara la carga del doctor
+    private static Long doctorIdOf(Appointment appointment) {
+        return appointment.getDoctor() != null ? appointment.getDoctor().getId() : null;
+    }
+
+    private static String statusBucket(String status) {
+        return status != null ? status : NO_STATUS;
+    }
+}
@@ -0,0 +1,39 @@
+package com.app.emsx.entities.listeners;
+
+import com.app.emsx.entities.Appointment;
+import com.app.emsx.entities.Consultation;
+import com.app.emsx.entities.Doctor;
+import com.app.emsx.entities.MedicalRecord;
+import com.app.emsx.entities.Patient;
+import com.app.emsx.entities.Specialty;
+import com.app.emsx.repositories.SyncChangeRepository;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import static com.app.emsx.repositories.SyncChangeRepository.*;
+
+/**
+ * SyncTombstoneListener
+ * -----------------------------------------------------
+ * ✔ Registra cada DELETE de una entidad sincronizable en sync_tombstones
+ * ✔ También las bajas en cascada (citas e historias de un paciente eliminado)
+ * ✔ Corre dentro del flush: si la transacción hace rollback, la baja no queda registrada
+ */
+@Component
+@RequiredArgsConstructor
+public class SyncTombstoneListener {
+
+    private final SyncChangeRepository changes;
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Patient patient) changes.recordDeletion(PATIENTS, patient.getId());
+        else if (entity instanceof Doctor doctor) changes.recordDeletion(DOCTORS, doctor.getId());
+        else if (entity instanceof Specialty specialty) changes.recordDeletion(SPECIALTIES, specialty.getId());
+        else if (entity instanceof Appointment appointment) changes.recordDeletion(APPOINTMENTS, appointment.getId());
+        else if (entity instanceof Consultation consultation) changes.recordDeletion(CONSULTATIONS, consultation.getId());
+        else if (entity instanceof MedicalRecord record) changes.recordDeletion(MEDICAL_RECORDS, record.getId());
+        else throw new IllegalArgumentException("Entidad no sincronizable: " + entity.getClass().getName());
+    }
+}
@@ -0,0 +1,77 @@
+package com.app.emsx.entities.listeners;
+
+import com.app.emsx.repositories.TableVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.TreeSet;
+
+/**
+ * TableVersionBumps
+ * -----------------------------------------------------
+ * ✔ Anota las tablas escritas en la transacción en curso (TableVersionListener)
+ *   en lugar de subir table_versions una vez por entidad durante el flush
+ * ✔ apply() las sube al final, justo antes del COMMIT (DashboardCounterInterceptor):
+ *   un solo UPSERT en orden de table_name → la fila de la tabla se bloquea sólo durante
+ *   el commit y siempre en el mismo orden; un borrado en cascada la sube una sola vez
+ * ✔ Sin transacción de Spring activa se escribe directo
+ */
+@Component
+@RequiredArgsConstructor
+public class TableVersionBumps {
+
+    private final TableVersionRepository versions;
+
+    public void touch(String table) {
+        TreeSet<String> pending = pending();
+        if (pending == null) {
+            versions.bump(table);
+            return;
+        }
+        pending.add(table);
+    }
+
+    /**
+     * ✅ Sube las tablas tocadas en la transacción (una vez por commit, después del último flush)
+     */
+    public void apply() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        @SuppressWarnings("unchecked")
+        TreeSet<String> pending = (TreeSet<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) return;
+        versions.bump(pending);
+        pending.clear();
+    }
+
+    // Tablas ligadas a la transacción; se liberan al terminar (commit o rollback)
+    @SuppressWarnings("unchecked")
+    private TreeSet<String> pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+        TreeSet<String> pending = (TreeSet<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            TreeSet<String> bound = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            // Una transacción REQUIRES_NEW suspende a la actual: sus tablas se apartan mientras tanto
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(TableVersionBumps.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(TableVersionBumps.this, bound);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TableVersionBumps.this);
+                }
+            });
+            pending = bound;
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,42 @@
+package com.app.emsx.entities.listeners;
+
+import com.app.emsx.entities.Appointment;
+import com.app.emsx.entities.Doctor;
+import com.app.emsx.entities.Patient;
+import com.app.emsx.entities.Specialty;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import static com.app.emsx.repositories.TableVersionRepository.*;
+
+/**
+ * TableVersionListener
+ * -----------------------------------------------------
+ * ✔ Anota la tabla de la entidad en cada INSERT/UPDATE/DELETE; TableVersionBumps sube
+ *   su versión una vez, justo antes del COMMIT: si la transacción hace rollback, no cambia
+ * ✔ Hibernate obtiene la instancia desde Spring (SpringBeanContainer)
+ */
+@Component
+@RequiredArgsConstructor
+public class TableVersionListener {
+
+    private final TableVersionBumps versions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        versions.touch(tableOf(entity));
+    }
+
+    private static String tableOf(Object entity) {
+        if (entity instanceof Patient) return PATIENTS;
+        if (entity instanceof Doctor) return DOCTORS;
+        if (entity instanceof Specialty) return SPECIALTIES;
+        if (entity instanceof Appointment) return APPOINTMENTS;
+        throw new IllegalArgumentException("Entidad sin versión de tabla: " + entity.getClass().getName());
+    }
+}
@@ -3,10 +3,14 @@ package com.app.emsx.exceptions;
 import com.app.emsx.common.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -71,6 +75,17 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.fail(ex.getMessage()));
     }
 
+    /**
+     * 🏷️ If-Match que no puede coincidir (412)
+     * Ejemplo: reenviar el ETag débil de un GET en lugar de la versión del registro
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiResponse.fail(ex.getMessage()));
+    }
+
     /**
      * 🔒 Violación de integridad de datos (409)
      * Ejemplo: intentar guardar un email duplicado cuando hay constraint único en BD
@@ -96,6 +111,30 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.fail(message));
     }
 
+    /**
+     * 🔁 Escritura concurrente sobre la misma versión (409)
+     * Otra transacción modificó o eliminó el registro primero y los reintentos
+     * (@RetryOnConflict) no alcanzaron: el cliente debe recargarlo
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.fail("El registro fue modificado por otro usuario. Vuelve a cargarlo e intenta nuevamente"));
+    }
+
+    /**
+     * 🚦 Base de datos saturada (503)
+     * Sin conexión disponible a tiempo (bulkhead de BD o pool agotado): el cliente puede reintentar
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ApiResponse<Void>> handleDatabaseUnavailable(Exception ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.fail("Servicio saturado, intenta nuevamente en unos segundos"));
+    }
+
     /**
      * 🔐 Credenciales inválidas (401)
      * Ejemplo: contraseña incorrecta en el login
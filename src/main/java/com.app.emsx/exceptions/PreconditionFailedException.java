@@ -0,0 +1,17 @@
+package com.app.emsx.exceptions;
+
+/**
+ * 🏷️ PreconditionFailedException
+ * ---------------------------------------------------------
+ * El If-Match trae un validador que nunca puede coincidir con la versión del registro,
+ * por ejemplo el ETag débil (W/"...") de un GET condicional: RFC 9110 exige comparación
+ * fuerte para If-Match.
+ *
+ * Es capturada por el GlobalExceptionHandler y devuelve HTTP 412 (Precondition Failed)
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.app.emsx.exceptions;
+
+/**
+ * 🔁 VersionConflictException
+ * ---------------------------------------------------------
+ * La versión enviada en If-Match ya no es la vigente: otro usuario modificó
+ * el registro desde que el cliente lo leyó.
+ *
+ * Es una BusinessRuleException (HTTP 409) y no se reintenta: el cliente debe
+ * volver a leer el registro y decidir si repite el cambio.
+ */
+public class VersionConflictException extends BusinessRuleException {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
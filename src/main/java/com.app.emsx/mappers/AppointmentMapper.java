@@ -50,6 +50,7 @@ public interface AppointmentMapper {
         dto.setTime(entity.getTime() != null ? entity.getTime().toString() : null);
         dto.setReason(entity.getReason());
         dto.setStatus(entity.getStatus());
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
@@ -35,6 +35,7 @@ public interface ConsultationMapper {
             dto.setMedicalRecordId(entity.getMedicalRecord().getId());
         }
         dto.setNotes(entity.getNotes());
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
@@ -37,6 +37,7 @@ public interface DoctorMapper {
             dto.setSpecialtyId(entity.getSpecialty().getId());
             dto.setSpecialtyName(entity.getSpecialty().getName());
         }
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
@@ -35,6 +35,7 @@ public interface MedicalRecordMapper {
         dto.setDiagnosis(entity.getDiagnosis());
         dto.setTreatment(entity.getTreatment());
         dto.setNotes(entity.getNotes());
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
@@ -39,6 +39,7 @@ public interface PatientMapper {
         dto.setPhone(entity.getPhone());
         dto.setAddress(entity.getAddress());
         dto.setDateOfBirth(entity.getDateOfBirth() != null ? entity.getDateOfBirth().toString() : null);
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
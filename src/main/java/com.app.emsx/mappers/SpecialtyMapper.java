@@ -25,6 +25,7 @@ public interface SpecialtyMapper {
         dto.setId(entity.getId());
         dto.setName(entity.getName());
         dto.setDescription(entity.getDescription());
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
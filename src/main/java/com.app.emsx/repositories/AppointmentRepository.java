@@ -1,9 +1,69 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Appointment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment>,
+        ProjectionExecutor<Appointment>, AppointmentRepositoryCustom {
+
+    /**
+     * 1 SELECT: cita + paciente + doctor + consulta (lado inverso del 1-1)
+     */
+    @Override
+    @EntityGraph(attributePaths = {"patient", "doctor", "consultation"})
+    Optional<Appointment> findById(Long id);
+
+    /**
+     * 1 SELECT para todo el listado (sin N+1 por paciente, doctor o consulta)
+     */
+    @Override
+    @EntityGraph(attributePaths = {"patient", "doctor", "consultation"})
+    List<Appointment> findAll();
+
+    /**
+     * Verifica si el doctor ya tiene una cita activa (no cancelada) en ese horario.
+     * Usa el índice único parcial uq_appointments_doctor_slot (doctor_id, date, time).
+     * excludeId permite ignorar la propia cita al actualizar (0 al crear).
+     * FlushMode COMMIT: la cita editada (aún sin guardar) no se envía antes de la verificación.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query("""
+            select count(a) > 0 from Appointment a
+            where a.doctor.id = :doctorId and a.date = :date and a.time = :time
+              and (a.status is null or a.status <> 'CANCELLED')
+              and a.id <> :excludeId
+            """)
+    boolean existsDoctorSlot(@Param("doctorId") Long doctorId,
+                             @Param("date") LocalDate date,
+                             @Param("time") LocalTime time,
+                             @Param("excludeId") Long excludeId);
+
+    /**
+     * Verifica si el paciente ya tiene una cita activa (no cancelada) en ese horario.
+     * Usa el índice único parcial uq_appointments_patient_slot (patient_id, date, time).
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query("""
+            select count(a) > 0 from Appointment a
+            where a.patient.id = :patientId and a.date = :date and a.time = :time
+              and (a.status is null or a.status <> 'CANCELLED')
+              and a.id <> :excludeId
+            """)
+    boolean existsPatientSlot(@Param("patientId") Long patientId,
+                              @Param("date") LocalDate date,
+                              @Param("time") LocalTime time,
+                              @Param("excludeId") Long excludeId);
 }
@@ -0,0 +1,26 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.app.emsx.entities.Appointment;
+import com.app.emsx.repositories.projections.Projection;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AppointmentRepositoryCustom
+ * -----------------------------------------------------
+ * ✔ Consultas de citas que Spring Data no puede derivar por nombre
+ * ✔ Implementado en AppointmentRepositoryImpl con Criteria API
+ */
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Citas en el rango [from, to] ordenadas por fecha y hora, proyectadas
+     * directamente a AppointmentResponse (sin cargar entidades) con la proyección
+     * indicada (ResponseProjections.APPOINTMENT, completa o recortada por campos).
+     * doctorId, patientId y status son filtros opcionales (null = sin filtro).
+     */
+    List<AppointmentResponse> findCalendar(Projection<Appointment, AppointmentResponse> projection,
+                                           Long doctorId, Long patientId, String status, LocalDate from, LocalDate to);
+}
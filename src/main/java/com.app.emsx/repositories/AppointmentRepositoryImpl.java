@@ -0,0 +1,46 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.app.emsx.entities.Appointment;
+import com.app.emsx.repositories.projections.Projection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AppointmentRepositoryImpl
+ * -----------------------------------------------------
+ * ✔ Fragmento de AppointmentRepository (Spring Data lo detecta por el sufijo Impl)
+ * ✔ Sólo agrega al WHERE los filtros presentes para que PostgreSQL use
+ *   el índice compuesto adecuado: (doctor_id, date, time), (patient_id, date, time) o (date, time, id)
+ */
+public class AppointmentRepositoryImpl implements AppointmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AppointmentResponse> findCalendar(Projection<Appointment, AppointmentResponse> projection,
+                                                  Long doctorId, Long patientId, String status, LocalDate from, LocalDate to) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppointmentResponse> query = cb.createQuery(AppointmentResponse.class);
+        Root<Appointment> appointment = query.from(Appointment.class);
+
+        // Filtros sobre las claves foráneas de appointments (sin depender de los JOIN de la proyección)
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.between(appointment.get("date"), from, to));
+        if (doctorId != null) predicates.add(cb.equal(appointment.get("doctor").get("id"), doctorId));
+        if (patientId != null) predicates.add(cb.equal(appointment.get("patient").get("id"), patientId));
+        if (status != null) predicates.add(cb.equal(appointment.get("status"), status));
+
+        query.select(projection.select(appointment, cb))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(appointment.get("date")), cb.asc(appointment.get("time")), cb.asc(appointment.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -2,8 +2,10 @@ package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Consultation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ConsultationRepository extends JpaRepository<Consultation, Long> {
+public interface ConsultationRepository extends JpaRepository<Consultation, Long>, JpaSpecificationExecutor<Consultation>,
+        ProjectionExecutor<Consultation> {
 }
@@ -0,0 +1,157 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.dtos.dashboard.SpecialtyCount;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * DashboardCounterRepository
+ * -----------------------------------------------------
+ * ✔ Tabla de acumulados dashboard_counters (metric, bucket) → value
+ * ✔ Cada alta/baja/cambio suma o resta con un UPSERT atómico (value = value + delta),
+ *   en la misma transacción y conexión que la escritura JPA que lo origina
+ * ✔ apply(): los deltas de una transacción van en un solo UPSERT ordenado por
+ *   (metric, bucket); dos transacciones bloquean las filas en el mismo orden (sin deadlocks)
+ * ✔ Se usa JDBC directo porque se invoca desde callbacks JPA durante el flush,
+ *   donde no se debe usar el EntityManager
+ */
+@Repository
+public class DashboardCounterRepository {
+
+    // Métricas (bucket vacío = total)
+    public static final String PATIENTS = "patients";
+    public static final String DOCTORS = "doctors";
+    public static final String APPOINTMENTS = "appointments";
+    public static final String APPOINTMENTS_BY_STATUS = "appointments_by_status";
+    public static final String APPOINTMENTS_BY_DOCTOR = "appointments_by_doctor";
+    public static final String APPOINTMENTS_BY_SPECIALTY = "appointments_by_specialty";
+    public static final String APPOINTMENTS_BY_DAY = "appointments_by_day";
+
+    public static final String TOTAL = "";
+
+    private static final String UPSERT = """
+            INSERT INTO dashboard_counters (metric, bucket, value) VALUES (?, ?, ?)
+            ON CONFLICT (metric, bucket) DO UPDATE SET value = dashboard_counters.value + EXCLUDED.value
+            """;
+
+    // Arreglos paralelos (metric, bucket, delta); el ORDER BY fija el orden de bloqueo de las filas
+    private static final String UPSERT_ALL = """
+            INSERT INTO dashboard_counters (metric, bucket, value)
+            SELECT metric, bucket, delta
+            FROM unnest(CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), CAST(? AS BIGINT[])) AS d(metric, bucket, delta)
+            ORDER BY metric, bucket
+            ON CONFLICT (metric, bucket) DO UPDATE SET value = dashboard_counters.value + EXCLUDED.value
+            """;
+
+    /**
+     * Fila de dashboard_counters; el orden natural es el de la PK
+     */
+    public record Counter(String metric, String bucket) implements Comparable<Counter> {
+        private static final Comparator<Counter> ORDER =
+                Comparator.comparing(Counter::metric).thenComparing(Counter::bucket);
+
+        @Override
+        public int compareTo(Counter other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // JdbcTemplate propio sobre el DataSource: el de Spring Boot espera a la inicialización
+    // del esquema, que a su vez espera al EntityManagerFactory que usa este repositorio
+    public DashboardCounterRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void add(String metric, String bucket, long delta) {
+        jdbcTemplate.update(UPSERT, metric, bucket, delta);
+    }
+
+    /**
+     * Suma todos los deltas en una sola sentencia (en orden de PK)
+     */
+    public void apply(SortedMap<Counter, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        String[] metrics = new String[deltas.size()];
+        String[] buckets = new String[deltas.size()];
+        Long[] values = new Long[deltas.size()];
+        int i = 0;
+        for (Map.Entry<Counter, Long> delta : deltas.entrySet()) {
+            metrics[i] = delta.getKey().metric();
+            buckets[i] = delta.getKey().bucket();
+            values[i++] = delta.getValue();
+        }
+        jdbcTemplate.update(UPSERT_ALL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", metrics));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", buckets));
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", values));
+        });
+    }
+
+    /**
+     * Especialidad actual del doctor (bucket de appointments_by_specialty); null si no tiene
+     */
+    public Long findDoctorSpecialtyId(Long doctorId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT specialty_id FROM doctors WHERE id = ?", Long.class, doctorId);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    public void remove(String metric, String bucket) {
+        jdbcTemplate.update("DELETE FROM dashboard_counters WHERE metric = ? AND bucket = ?", metric, bucket);
+    }
+
+    public long get(String metric, String bucket) {
+        List<Long> values = jdbcTemplate.queryForList(
+                "SELECT value FROM dashboard_counters WHERE metric = ? AND bucket = ?", Long.class, metric, bucket);
+        return values.isEmpty() ? 0L : values.get(0);
+    }
+
+    /**
+     * Todos los buckets de una métrica (lectura por prefijo de la PK)
+     */
+    public Map<String, Long> findByMetric(String metric) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT bucket, value FROM dashboard_counters WHERE metric = ? ORDER BY bucket",
+                rs -> {
+                    values.put(rs.getString(1), rs.getLong(2));
+                }, metric);
+        return values;
+    }
+
+    /**
+     * Buckets en [from, to]; los buckets de fecha son ISO (yyyy-MM-dd) y se ordenan como texto
+     */
+    public Map<String, Long> findByMetricBetween(String metric, String from, String to) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT bucket, value FROM dashboard_counters WHERE metric = ? AND bucket BETWEEN ? AND ?",
+                rs -> {
+                    values.put(rs.getString(1), rs.getLong(2));
+                }, metric, from, to);
+        return values;
+    }
+
+    /**
+     * Citas por especialidad con su nombre (una fila por especialidad)
+     */
+    public List<SpecialtyCount> findAppointmentsBySpecialty() {
+        return jdbcTemplate.query("""
+                        SELECT s.id, s.name, COALESCE(c.value, 0)
+                        FROM specialties s
+                        LEFT JOIN dashboard_counters c
+                               ON c.metric = ? AND c.bucket = CAST(s.id AS VARCHAR)
+                        ORDER BY s.name, s.id
+                        """,
+                (rs, rowNum) -> new SpecialtyCount(rs.getLong(1), rs.getString(2), rs.getLong(3)),
+                APPOINTMENTS_BY_SPECIALTY);
+    }
+}
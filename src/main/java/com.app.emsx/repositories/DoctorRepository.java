@@ -1,11 +1,48 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Doctor;
+import com.app.emsx.repositories.projections.ContactConflicts;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
-    boolean existsByEmail(String email);
-    boolean existsByPhone(String phone);
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, JpaSpecificationExecutor<Doctor>,
+        ProjectionExecutor<Doctor> {
+
+    /**
+     * 1 SELECT: doctor + especialidad
+     */
+    @Override
+    @EntityGraph(attributePaths = {"specialty"})
+    Optional<Doctor> findById(Long id);
+
+    /**
+     * 1 SELECT para todo el listado (sin N+1 por especialidad)
+     */
+    @Override
+    @EntityGraph(attributePaths = {"specialty"})
+    List<Doctor> findAll();
+
+    /**
+     * Unicidad de email y teléfono en una sola consulta (antes existsByEmail + existsByPhone).
+     * Un valor null no se verifica; excludeId ignora el propio registro al actualizar (0 al crear).
+     * Los índices únicos uq_doctors_email / uq_doctors_phone son la garantía final.
+     */
+    @Query("""
+            select new com.app.emsx.repositories.projections.ContactConflicts(
+                count(case when d.email = :email then 1 end),
+                count(case when d.phone = :phone then 1 end))
+            from Doctor d
+            where (d.email = :email or d.phone = :phone) and d.id <> :excludeId
+            """)
+    ContactConflicts findContactConflicts(@Param("email") String email,
+                                          @Param("phone") String phone,
+                                          @Param("excludeId") Long excludeId);
 }
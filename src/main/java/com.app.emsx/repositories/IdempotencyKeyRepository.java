@@ -0,0 +1,78 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.repositories.projections.IdempotencyRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * IdempotencyKeyRepository
+ * -----------------------------------------------------
+ * ✔ Tabla idempotency_keys: respaldo en BD del almacén de Idempotency-Key
+ *   (compartido entre instancias y entre reinicios)
+ * ✔ claim() reserva la clave con un solo UPSERT: sólo una solicitud la obtiene aunque
+ *   lleguen varias a la vez; las vencidas o abandonadas en curso se pueden volver a tomar
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    private static final String CLAIM = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at) VALUES (?, ?, ?)
+            ON CONFLICT (idempotency_key) DO UPDATE
+                SET fingerprint = EXCLUDED.fingerprint, status = NULL, content_type = NULL, body = NULL,
+                    created_at = EXCLUDED.created_at
+                WHERE idempotency_keys.created_at < ?
+                   OR (idempotency_keys.status IS NULL AND idempotency_keys.created_at < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserva la clave; false si otra solicitud ya la tiene (en curso o completada y vigente)
+     *
+     * @param expiredBefore completadas antes de este instante se pueden reutilizar
+     * @param staleBefore   en curso desde antes de este instante se consideran abandonadas
+     */
+    public boolean claim(String key, String fingerprint, Instant now, Instant expiredBefore, Instant staleBefore) {
+        return jdbcTemplate.update(CLAIM, key, fingerprint, Timestamp.from(now),
+                Timestamp.from(expiredBefore), Timestamp.from(staleBefore)) == 1;
+    }
+
+    public Optional<IdempotencyRecord> find(String key) {
+        List<IdempotencyRecord> rows = jdbcTemplate.query(
+                "SELECT fingerprint, status, content_type, body FROM idempotency_keys WHERE idempotency_key = ?",
+                (rs, rowNum) -> new IdempotencyRecord(rs.getString(1), (Integer) rs.getObject(2),
+                        rs.getString(3), rs.getBytes(4)),
+                key);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Guarda la respuesta; false si la reserva ya no es la de claimedAt (se dio por abandonada y otra
+     * solicitud la volvió a tomar)
+     */
+    public boolean complete(String key, Instant claimedAt, int status, String contentType, byte[] body) {
+        return jdbcTemplate.update("""
+                UPDATE idempotency_keys SET status = ?, content_type = ?, body = ?
+                WHERE idempotency_key = ? AND created_at = ? AND status IS NULL
+                """, status, contentType, body, key, Timestamp.from(claimedAt)) == 1;
+    }
+
+    /**
+     * Libera una reserva en curso (la solicitud falló: un reintento debe volver a ejecutarse)
+     */
+    public void release(String key, Instant claimedAt) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND created_at = ? AND status IS NULL",
+                key, Timestamp.from(claimedAt));
+    }
+
+    public int purge(Instant expiredBefore) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?", Timestamp.from(expiredBefore));
+    }
+}
@@ -1,9 +1,29 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.MedicalRecord;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
+public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long>, JpaSpecificationExecutor<MedicalRecord>,
+        ProjectionExecutor<MedicalRecord> {
+
+    /**
+     * 1 SELECT: historia médica + paciente
+     */
+    @Override
+    @EntityGraph(attributePaths = {"patient"})
+    Optional<MedicalRecord> findById(Long id);
+
+    /**
+     * 1 SELECT para todo el listado (sin N+1 por paciente)
+     */
+    @Override
+    @EntityGraph(attributePaths = {"patient"})
+    List<MedicalRecord> findAll();
 }
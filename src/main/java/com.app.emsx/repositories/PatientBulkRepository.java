@@ -0,0 +1,102 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.entities.Patient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * PatientBulkRepository
+ * -----------------------------------------------------
+ * ✔ Operaciones por lotes para la importación masiva de pacientes (JDBC directo)
+ * ✔ Ids de la misma secuencia pooled que usa Hibernate: cada nextval reserva
+ *   el bloque [v - 49, v], igual que el optimizador pooled, así no hay choques
+ * ✔ INSERT en batch (con reWriteBatchedInserts el driver lo envía como multi-VALUES)
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientBulkRepository {
+
+    private static final String INSERT = """
+            INSERT INTO patients (id, first_name, last_name, email, phone, address, date_of_birth)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Emails y teléfonos ya registrados (coincidencia exacta, como existsByEmail/existsByPhone)
+     */
+    public record Existing(Set<String> emails, Set<String> phones) {
+    }
+
+    /**
+     * ✅ count ids nuevos con un solo round trip (un nextval por bloque de 50)
+     */
+    public List<Long> nextIds(int count) {
+        int blocks = (count + Patient.ID_ALLOCATION_SIZE - 1) / Patient.ID_ALLOCATION_SIZE;
+        List<Long> his = jdbcTemplate.queryForList(
+                "SELECT nextval('" + Patient.ID_SEQUENCE + "') FROM generate_series(1, ?)", Long.class, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long hi : his) {
+            for (long id = hi - Patient.ID_ALLOCATION_SIZE + 1; id <= hi && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * ✅ Una sola consulta por lote: usa los índices lower(email) y phone (BitmapOr)
+     */
+    public Existing findExisting(Collection<String> emails, Collection<String> phones) {
+        Set<String> foundEmails = new HashSet<>();
+        Set<String> foundPhones = new HashSet<>();
+        String[] lowerEmails = emails.stream().map(String::toLowerCase).toArray(String[]::new);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT email, phone FROM patients WHERE lower(email) = ANY (?) OR phone = ANY (?)");
+            ps.setArray(1, con.createArrayOf("varchar", lowerEmails));
+            ps.setArray(2, con.createArrayOf("varchar", phones.toArray()));
+            return ps;
+        }, rs -> {
+            foundEmails.add(rs.getString(1));
+            foundPhones.add(rs.getString(2));
+        });
+        return new Existing(foundEmails, foundPhones);
+    }
+
+    /**
+     * ✅ INSERT por lotes; los pacientes deben traer el id asignado (nextIds)
+     */
+    public void insert(List<Patient> patients) {
+        jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Patient patient = patients.get(i);
+                ps.setLong(1, patient.getId());
+                ps.setString(2, patient.getFirstName());
+                ps.setString(3, patient.getLastName());
+                ps.setString(4, patient.getEmail());
+                ps.setString(5, patient.getPhone());
+                ps.setString(6, patient.getAddress());
+                ps.setObject(7, patient.getDateOfBirth(), Types.DATE);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return patients.size();
+            }
+        });
+    }
+}
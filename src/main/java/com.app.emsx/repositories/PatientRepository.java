@@ -1,11 +1,30 @@
 package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Patient;
+import com.app.emsx.repositories.projections.ContactConflicts;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, Long> {
-    boolean existsByEmail(String email);
-    boolean existsByPhone(String phone);
+public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpecificationExecutor<Patient>,
+        ProjectionExecutor<Patient> {
+
+    /**
+     * Unicidad de email y teléfono en una sola consulta (antes existsByEmail + existsByPhone).
+     * Un valor null no se verifica; excludeId ignora el propio registro al actualizar (0 al crear).
+     * Los índices únicos uq_patients_email / uq_patients_phone son la garantía final.
+     */
+    @Query("""
+            select new com.app.emsx.repositories.projections.ContactConflicts(
+                count(case when p.email = :email then 1 end),
+                count(case when p.phone = :phone then 1 end))
+            from Patient p
+            where (p.email = :email or p.phone = :phone) and p.id <> :excludeId
+            """)
+    ContactConflicts findContactConflicts(@Param("email") String email,
+                                          @Param("phone") String phone,
+                                          @Param("excludeId") Long excludeId);
 }
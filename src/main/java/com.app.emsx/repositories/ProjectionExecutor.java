@@ -0,0 +1,59 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.repositories.projections.Projection;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * ProjectionExecutor
+ * -----------------------------------------------------
+ * ✔ Fragmento compartido por los repositorios: lecturas proyectadas a DTO
+ * ✔ Las filas se construyen con SELECT new (sin entidades en el contexto de persistencia)
+ * ✔ Implementado una sola vez en ProjectionExecutorImpl
+ */
+public interface ProjectionExecutor<T> {
+
+    // Filas por ida y vuelta al recorrer un cursor (streamAllProjected)
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Registro por id proyectado al DTO
+     */
+    <R> Optional<R> findProjectedById(Projection<T, R> projection, Long id);
+
+    /**
+     * Listado completo proyectado al DTO, en el orden indicado
+     */
+    <R> List<R> findAllProjected(Projection<T, R> projection, Specification<T> filter, Sort sort);
+
+    default <R> List<R> findAllProjected(Projection<T, R> projection, Sort sort) {
+        return findAllProjected(projection, (root, query, cb) -> null, sort);
+    }
+
+    /**
+     * Listado completo como Stream sobre un cursor de la BD: trae fetchSize filas por
+     * ida y vuelta. Se consume y se cierra dentro de la transacción (try-with-resources).
+     */
+    <R> Stream<R> streamAllProjected(Projection<T, R> projection, Specification<T> filter, Sort sort, int fetchSize);
+
+    default <R> Stream<R> streamAllProjected(Projection<T, R> projection, Sort sort, int fetchSize) {
+        return streamAllProjected(projection, (root, query, cb) -> null, sort, fetchSize);
+    }
+
+    default <R> Stream<R> streamAllProjected(Projection<T, R> projection, Sort sort) {
+        return streamAllProjected(projection, sort, STREAM_FETCH_SIZE);
+    }
+
+    /**
+     * Página keyset proyectada al DTO: filas posteriores a position según sort, hasta limit.
+     * Las claves de orden deben ser atributos directos de la entidad.
+     */
+    <R> Window<R> scrollProjected(Projection<T, R> projection, Specification<T> filter, Sort sort,
+                                  int limit, KeysetScrollPosition position);
+}
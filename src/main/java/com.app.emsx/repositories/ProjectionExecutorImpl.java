@@ -0,0 +1,147 @@
+package com.app.emsx.repositories;
+
+import com.app.emsx.repositories.projections.Projection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * ProjectionExecutorImpl
+ * -----------------------------------------------------
+ * ✔ Implementación única del fragmento ProjectionExecutor (la entidad la indica la Projection)
+ * ✔ scrollProjected selecciona el DTO junto con las claves de orden para armar el cursor
+ *   y pide limit + 1 filas para saber si hay más
+ * ✔ streamAllProjected recorre un cursor de la BD en lugar de materializar la lista
+ * ✔ Las proyecciones cacheables marcan la consulta para la caché de consultas de Hibernate
+ */
+public class ProjectionExecutorImpl<T> implements ProjectionExecutor<T> {
+
+    private static final String ROW = "row";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <R> Optional<R> findProjectedById(Projection<T, R> projection, Long id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(projection.type());
+        Root<T> root = query.from(projection.entity());
+        query.select(projection.select(root, cb)).where(cb.equal(root.get("id"), id));
+        // getResultList: el stream (scroll) no pasa por la caché de consultas
+        return cached(entityManager.createQuery(query), projection).getResultList().stream().findFirst();
+    }
+
+    @Override
+    public <R> List<R> findAllProjected(Projection<T, R> projection, Specification<T> filter, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(projection.type());
+        Root<T> root = query.from(projection.entity());
+        query.select(projection.select(root, cb));
+        Predicate where = filter.toPredicate(root, query, cb);
+        if (where != null) query.where(where);
+        query.orderBy(orders(root, cb, sort));
+        return cached(entityManager.createQuery(query), projection).getResultList();
+    }
+
+    @Override
+    public <R> Stream<R> streamAllProjected(Projection<T, R> projection, Specification<T> filter, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(projection.type());
+        Root<T> root = query.from(projection.entity());
+        query.select(projection.select(root, cb));
+        Predicate where = filter.toPredicate(root, query, cb);
+        if (where != null) query.where(where);
+        query.orderBy(orders(root, cb, sort));
+        // Con fetch size (y autocommit apagado por la transacción) el driver usa un cursor
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public <R> Window<R> scrollProjected(Projection<T, R> projection, Specification<T> filter, Sort sort,
+                                         int limit, KeysetScrollPosition position) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(projection.entity());
+
+        // Las claves de orden van primero: Hibernate resuelve el ORDER BY por posición
+        // dentro del SELECT y un "new" previo desplazaría esas posiciones
+        List<Selection<?>> selections = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            selections.add(root.get(order.getProperty()).alias(order.getProperty()));
+        }
+        selections.add(projection.select(root, cb).alias(ROW));
+        query.multiselect(selections);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate where = filter.toPredicate(root, query, cb);
+        if (where != null) predicates.add(where);
+        if (!position.isInitial()) predicates.add(after(root, cb, sort, position.getKeys()));
+        query.where(predicates.toArray(Predicate[]::new)).orderBy(orders(root, cb, sort));
+
+        List<Tuple> rows = cached(entityManager.createQuery(query), projection).setMaxResults(limit + 1).getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<Tuple> content = hasNext ? rows.subList(0, limit) : rows;
+
+        List<R> items = content.stream().map(row -> row.get(ROW, projection.type())).toList();
+        return Window.from(items, index -> keysOf(content.get(index), sort), hasNext);
+    }
+
+    private <X> TypedQuery<X> cached(TypedQuery<X> query, Projection<T, ?> projection) {
+        return projection.isCacheable() ? query.setHint(HibernateHints.HINT_CACHEABLE, true) : query;
+    }
+
+    private List<Order> orders(Root<T> root, CriteriaBuilder cb, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = root.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        return orders;
+    }
+
+    // (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... (con < en orden descendente)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate after(Root<T> root, CriteriaBuilder cb, Sort sort, Map<String, Object> keys) {
+        List<Sort.Order> orders = sort.toList();
+        List<Predicate> alternatives = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            List<Predicate> conditions = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                String property = orders.get(j).getProperty();
+                conditions.add(cb.equal(root.get(property), keys.get(property)));
+            }
+            Sort.Order order = orders.get(i);
+            Expression<Comparable> path = root.get(order.getProperty());
+            Comparable value = (Comparable) keys.get(order.getProperty());
+            conditions.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+            alternatives.add(cb.and(conditions.toArray(Predicate[]::new)));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private ScrollPosition keysOf(Tuple row, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), row.get(order.getProperty()));
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
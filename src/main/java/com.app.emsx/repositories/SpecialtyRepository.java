@@ -2,9 +2,11 @@ package com.app.emsx.repositories;
 
 import com.app.emsx.entities.Specialty;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface SpecialtyRepository extends JpaRepository<Specialty, Long> {
+public interface SpecialtyRepository extends JpaRepository<Specialty, Long>, JpaSpecificationExecutor<Specialty>,
+        ProjectionExecutor<Specialty> {
     boolean existsByName(String name);
 }
@@ -0,0 +1,68 @@
+package com.app.emsx.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SyncChangeRepository
+ * -----------------------------------------------------
+ * ✔ Tabla sync_tombstones: registros eliminados (colección + id) con la transacción que
+ *   los eliminó, para que /api/sync informe las bajas a los clientes móviles
+ * ✔ xmin de la instantánea actual: base del próximo token de sincronización
+ * ✔ Las bajas se registran en la misma transacción que el DELETE (SyncTombstoneListener)
+ */
+@Repository
+public class SyncChangeRepository {
+
+    // Colecciones de /api/sync (mismos nombres que en la respuesta)
+    public static final String PATIENTS = "patients";
+    public static final String DOCTORS = "doctors";
+    public static final String SPECIALTIES = "specialties";
+    public static final String APPOINTMENTS = "appointments";
+    public static final String CONSULTATIONS = "consultations";
+    public static final String MEDICAL_RECORDS = "medicalRecords";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // JdbcTemplate propio: se usa desde callbacks JPA, antes de la inicialización del esquema
+    public SyncChangeRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Transacción más antigua todavía en curso: todo lo que aún no es visible tiene un xid mayor o igual
+     */
+    public long snapshotXmin() {
+        Long xmin = jdbcTemplate.queryForObject(
+                "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+        return xmin != null ? xmin : 0L;
+    }
+
+    public void recordDeletion(String collection, Long id) {
+        jdbcTemplate.update("INSERT INTO sync_tombstones (collection, entity_id) VALUES (?, ?)", collection, id);
+    }
+
+    /**
+     * Ids eliminados desde la transacción indicada, por colección
+     */
+    public Map<String, List<Long>> findDeletionsSince(long txid) {
+        Map<String, List<Long>> deleted = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT collection, entity_id FROM sync_tombstones WHERE change_txid >= ? ORDER BY id",
+                rs -> {
+                    deleted.computeIfAbsent(rs.getString(1), key -> new ArrayList<>()).add(rs.getLong(2));
+                }, txid);
+        return deleted;
+    }
+
+    public int purgeDeletions(Instant deletedBefore) {
+        return jdbcTemplate.update("DELETE FROM sync_tombstones WHERE deleted_at < ?", Timestamp.from(deletedBefore));
+    }
+}
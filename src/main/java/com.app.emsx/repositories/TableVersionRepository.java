@@ -0,0 +1,75 @@
+package com.app.emsx.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * TableVersionRepository
+ * -----------------------------------------------------
+ * ✔ Tabla table_versions: un contador por tabla que sube con cada escritura
+ * ✔ Base de los ETag de los GET condicionales: misma versión ⇒ mismos datos
+ * ✔ Se incrementa en la misma transacción que la escritura: TableVersionListener anota la
+ *   tabla y TableVersionBumps sube todas las tocadas con un solo UPSERT justo antes del COMMIT,
+ *   en orden de table_name (la fila de la tabla no queda bloqueada desde el flush)
+ */
+@Repository
+public class TableVersionRepository {
+
+    // Tablas versionadas
+    public static final String PATIENTS = "patients";
+    public static final String DOCTORS = "doctors";
+    public static final String SPECIALTIES = "specialties";
+    public static final String APPOINTMENTS = "appointments";
+
+    // schema-postgresql.sql siembra cada tabla con el instante actual (ms); el INSERT cubre
+    // una fila ausente con el mismo criterio, así un reinicio de versiones no repite ETags
+    private static final String BUMP_ALL = """
+            INSERT INTO table_versions (table_name, version)
+            SELECT t.table_name, CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000 AS BIGINT)
+            FROM unnest(CAST(? AS VARCHAR[])) AS t (table_name)
+            ORDER BY t.table_name
+            ON CONFLICT (table_name) DO UPDATE SET version = table_versions.version + 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // JdbcTemplate propio: se usa desde callbacks JPA, antes de la inicialización del esquema
+    public TableVersionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void bump(String table) {
+        bump(new TreeSet<>(Set.of(table)));
+    }
+
+    /**
+     * ✅ Sube varias tablas en una sola sentencia; las filas se bloquean en orden de table_name
+     */
+    public void bump(SortedSet<String> tables) {
+        if (tables.isEmpty()) return;
+        String[] names = tables.toArray(String[]::new);
+        jdbcTemplate.update(BUMP_ALL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", names)));
+    }
+
+    /**
+     * Versiones de varias tablas en una sola lectura por PK (0 = sin fila)
+     */
+    public Map<String, Long> findVersions(Collection<String> tables) {
+        Map<String, Long> versions = new HashMap<>();
+        for (String table : tables) versions.put(table, 0L);
+        jdbcTemplate.query("SELECT table_name, version FROM table_versions WHERE table_name = ANY (?)",
+                rs -> {
+                    versions.put(rs.getString(1), rs.getLong(2));
+                }, (Object) tables.toArray(String[]::new));
+        return versions;
+    }
+}
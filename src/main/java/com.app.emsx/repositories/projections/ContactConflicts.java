@@ -0,0 +1,17 @@
+package com.app.emsx.repositories.projections;
+
+/**
+ * ContactConflicts
+ * -----------------------------------------------------
+ * ✔ Resultado de la verificación de unicidad de email y teléfono en una sola consulta
+ */
+public record ContactConflicts(Long emailMatches, Long phoneMatches) {
+
+    public boolean emailTaken() {
+        return emailMatches != null && emailMatches > 0;
+    }
+
+    public boolean phoneTaken() {
+        return phoneMatches != null && phoneMatches > 0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.app.emsx.repositories.projections;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+
+import java.util.Set;
+
+/**
+ * Fields
+ * -----------------------------------------------------
+ * ✔ Campos del DTO pedidos a una proyección (?fields=); all() = todos
+ * ✔ column(): la columna si el campo se pidió; si no, un NULL constante en el SELECT
+ *   (el constructor del DTO no cambia y la columna no se lee de la tabla)
+ * ✔ any(): para armar un JOIN sólo si algún campo lo necesita
+ */
+public final class Fields {
+
+    private static final Fields ALL = new Fields(null);
+
+    private final Set<String> names;   // null = todos los campos
+
+    private Fields(Set<String> names) {
+        this.names = names;
+    }
+
+    public static Fields all() {
+        return ALL;
+    }
+
+    static Fields only(Set<String> names) {
+        return new Fields(Set.copyOf(names));
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    public boolean any(String... candidates) {
+        for (String name : candidates) {
+            if (includes(name)) return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <X> Expression<X> column(String name, Expression<X> column, CriteriaBuilder cb) {
+        return includes(name) ? column : (Expression<X>) cb.nullLiteral(column.getJavaType());
+    }
+}
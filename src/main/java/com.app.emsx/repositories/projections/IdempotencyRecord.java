@@ -0,0 +1,14 @@
+package com.app.emsx.repositories.projections;
+
+/**
+ * IdempotencyRecord
+ * -----------------------------------------------------
+ * ✔ Fila de idempotency_keys: huella del cuerpo y respuesta guardada
+ * ✔ status null = la primera solicitud con esa clave todavía está en curso
+ */
+public record IdempotencyRecord(String fingerprint, Integer status, String contentType, byte[] body) {
+
+    public boolean completed() {
+        return status != null;
+    }
+}
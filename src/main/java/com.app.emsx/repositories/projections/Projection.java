@@ -0,0 +1,112 @@
+package com.app.emsx.repositories.projections;
+
+import com.app.emsx.exceptions.BusinessRuleException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Projection
+ * -----------------------------------------------------
+ * ✔ Define cómo seleccionar un DTO de respuesta directamente desde una entidad
+ *   (Criteria "new": SELECT new XResponse(...) FROM X ...)
+ * ✔ Hibernate construye el DTO a partir de las columnas: no hay entidades
+ *   gestionadas, ni snapshots para dirty checking, ni proxies
+ * ✔ La ejecutan los repositorios que extienden ProjectionExecutor
+ * ✔ cacheable(): sus consultas usan la caché de consultas de Hibernate (catálogos
+ *   que casi no cambian); se invalida sola cuando se escribe en sus tablas
+ * ✔ shaped(): admite only(campos) y sólo selecciona las columnas de esos campos (?fields=)
+ */
+public final class Projection<T, R> {
+
+    /**
+     * Selección que recibe los campos pedidos (Fields.column / Fields.any)
+     */
+    @FunctionalInterface
+    public interface Shape<T, R> {
+        Selection<R> select(Root<T> root, CriteriaBuilder cb, Fields fields);
+    }
+
+    private final Class<T> entity;
+    private final Class<R> type;
+    private final Shape<T, R> selection;
+    private final Set<String> shapeable;   // campos admitidos por only(); vacío = no admite
+    private final Fields fields;
+    private final boolean cacheable;
+
+    private Projection(Class<T> entity, Class<R> type, Shape<T, R> selection,
+                       Set<String> shapeable, Fields fields, boolean cacheable) {
+        this.entity = entity;
+        this.type = type;
+        this.selection = selection;
+        this.shapeable = shapeable;
+        this.fields = fields;
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * ✅ entity: raíz de la consulta · type: DTO resultante · selection: cb.construct(type, ...)
+     */
+    public static <T, R> Projection<T, R> of(Class<T> entity, Class<R> type,
+                                             BiFunction<Root<T>, CriteriaBuilder, Selection<R>> selection) {
+        return new Projection<>(entity, type, (root, cb, fields) -> selection.apply(root, cb),
+                Set.of(), Fields.all(), false);
+    }
+
+    /**
+     * ✅ Proyección recortable por campos: cada argumento del construct pasa por
+     * fields.column("campoDelDto", columna, cb). Los campos válidos son los del DTO.
+     */
+    public static <T, R> Projection<T, R> shaped(Class<T> entity, Class<R> type, Shape<T, R> selection) {
+        Set<String> properties = Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return new Projection<>(entity, type, selection, Collections.unmodifiableSet(properties), Fields.all(), false);
+    }
+
+    /**
+     * ✅ Misma proyección con resultados en la caché de consultas
+     */
+    public Projection<T, R> cacheable() {
+        return new Projection<>(entity, type, selection, shapeable, fields, true);
+    }
+
+    /**
+     * ✅ Misma proyección leyendo sólo las columnas de los campos indicados (vacío = todos)
+     */
+    public Projection<T, R> only(Set<String> names) {
+        if (names.isEmpty()) return this;
+        for (String name : names) {
+            if (!shapeable.contains(name)) {
+                throw new BusinessRuleException("Campo no permitido: " + name + ". Valores válidos: " + shapeable);
+            }
+        }
+        return new Projection<>(entity, type, selection, shapeable, Fields.only(names), cacheable);
+    }
+
+    public Class<T> entity() {
+        return entity;
+    }
+
+    public Class<R> type() {
+        return type;
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public Selection<R> select(Root<T> root, CriteriaBuilder cb) {
+        return selection.select(root, cb, fields);
+    }
+}
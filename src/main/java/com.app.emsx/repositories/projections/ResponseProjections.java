@@ -0,0 +1,111 @@
+package com.app.emsx.repositories.projections;
+
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.app.emsx.dtos.consultation.ConsultationResponse;
+import com.app.emsx.dtos.doctor.DoctorResponse;
+import com.app.emsx.dtos.medicalrecord.MedicalRecordResponse;
+import com.app.emsx.dtos.patient.PatientResponse;
+import com.app.emsx.dtos.specialty.SpecialtyResponse;
+import com.app.emsx.entities.*;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+
+/**
+ * ResponseProjections
+ * -----------------------------------------------------
+ * ✔ Proyecciones de lectura de cada recurso (mismo resultado que XMapper.toResponse)
+ * ✔ Sólo se seleccionan las columnas del DTO; las claves foráneas se leen
+ *   de la propia tabla (root.get("x").get("id")) sin JOIN
+ * ✔ Recortables con only(campos): los campos no pedidos van como NULL y los JOIN
+ *   de nombres (paciente, doctor, especialidad) sólo se arman si se pide ese nombre
+ */
+public final class ResponseProjections {
+
+    private ResponseProjections() {
+    }
+
+    public static final Projection<Patient, PatientResponse> PATIENT = Projection.shaped(
+            Patient.class, PatientResponse.class,
+            (root, cb, fields) -> cb.construct(PatientResponse.class,
+                    root.get("id"),
+                    fields.column("firstName", root.get("firstName"), cb),
+                    fields.column("lastName", root.get("lastName"), cb),
+                    fields.column("email", root.get("email"), cb),
+                    fields.column("phone", root.get("phone"), cb),
+                    fields.column("address", root.get("address"), cb),
+                    fields.column("dateOfBirth", root.get("dateOfBirth"), cb),
+                    fields.column("version", root.get("version"), cb)));
+
+    // La especialidad es opcional: LEFT JOIN para no perder doctores sin especialidad.
+    // Doctores y especialidades son catálogo: sus listados usan la caché de consultas
+    public static final Projection<Doctor, DoctorResponse> DOCTOR = Projection.shaped(
+            Doctor.class, DoctorResponse.class,
+            (root, cb, fields) -> {
+                Path<Specialty> specialty = fields.any("specialtyName")
+                        ? root.join("specialty", JoinType.LEFT)
+                        : root.get("specialty");
+                return cb.construct(DoctorResponse.class,
+                        root.get("id"),
+                        fields.column("firstName", root.get("firstName"), cb),
+                        fields.column("lastName", root.get("lastName"), cb),
+                        fields.column("email", root.get("email"), cb),
+                        fields.column("phone", root.get("phone"), cb),
+                        fields.column("specialtyId", specialty.get("id"), cb),
+                        fields.column("specialtyName", specialty.get("name"), cb),
+                        fields.column("version", root.get("version"), cb));
+            }).cacheable();
+
+    public static final Projection<Specialty, SpecialtyResponse> SPECIALTY = Projection.shaped(
+            Specialty.class, SpecialtyResponse.class,
+            (root, cb, fields) -> cb.construct(SpecialtyResponse.class,
+                    root.get("id"),
+                    fields.column("name", root.get("name"), cb),
+                    fields.column("description", root.get("description"), cb),
+                    fields.column("version", root.get("version"), cb))).cacheable();
+
+    // patient_id y doctor_id son NOT NULL: sin el JOIN las filas no cambian
+    public static final Projection<Appointment, AppointmentResponse> APPOINTMENT = Projection.shaped(
+            Appointment.class, AppointmentResponse.class,
+            (root, cb, fields) -> {
+                Path<Patient> patient = fields.any("patientName") ? root.join("patient") : root.get("patient");
+                Path<Doctor> doctor = fields.any("doctorName") ? root.join("doctor") : root.get("doctor");
+                return cb.construct(AppointmentResponse.class,
+                        root.get("id"),
+                        fields.column("patientId", patient.get("id"), cb),
+                        fields.column("patientName", patient.get("firstName"), cb),
+                        fields.column("patientName", patient.get("lastName"), cb),
+                        fields.column("doctorId", doctor.get("id"), cb),
+                        fields.column("doctorName", doctor.get("firstName"), cb),
+                        fields.column("doctorName", doctor.get("lastName"), cb),
+                        fields.column("date", root.get("date"), cb),
+                        fields.column("time", root.get("time"), cb),
+                        fields.column("reason", root.get("reason"), cb),
+                        fields.column("status", root.get("status"), cb),
+                        fields.column("version", root.get("version"), cb));
+            });
+
+    // diagnosis, treatment y notes son TEXT: los listados que no los piden no los leen
+    public static final Projection<MedicalRecord, MedicalRecordResponse> MEDICAL_RECORD = Projection.shaped(
+            MedicalRecord.class, MedicalRecordResponse.class,
+            (root, cb, fields) -> {
+                Path<Patient> patient = fields.any("patientName") ? root.join("patient") : root.get("patient");
+                return cb.construct(MedicalRecordResponse.class,
+                        root.get("id"),
+                        fields.column("patientId", patient.get("id"), cb),
+                        fields.column("patientName", patient.get("firstName"), cb),
+                        fields.column("patientName", patient.get("lastName"), cb),
+                        fields.column("diagnosis", root.get("diagnosis"), cb),
+                        fields.column("treatment", root.get("treatment"), cb),
+                        fields.column("notes", root.get("notes"), cb),
+                        fields.column("version", root.get("version"), cb));
+            });
+
+    public static final Projection<Consultation, ConsultationResponse> CONSULTATION = Projection.shaped(
+            Consultation.class, ConsultationResponse.class,
+            (root, cb, fields) -> cb.construct(ConsultationResponse.class,
+                    root.get("id"),
+                    fields.column("appointmentId", root.get("appointment").get("id"), cb),
+                    fields.column("medicalRecordId", root.get("medicalRecord").get("id"), cb),
+                    fields.column("notes", root.get("notes"), cb),
+                    fields.column("version", root.get("version"), cb)));
+}
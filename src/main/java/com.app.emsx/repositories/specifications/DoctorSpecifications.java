@@ -0,0 +1,29 @@
+package com.app.emsx.repositories.specifications;
+
+import com.app.emsx.entities.Doctor;
+import org.springframework.data.jpa.domain.Specification;
+
+import static com.app.emsx.repositories.specifications.SearchSpecifications.*;
+
+/**
+ * DoctorSpecifications
+ * -----------------------------------------------------
+ * ✔ Construye la consulta dinámica de /api/doctors/search
+ * ✔ La especialidad se filtra por la FK (specialty_id) sin hacer join
+ */
+public final class DoctorSpecifications {
+
+    private DoctorSpecifications() {
+    }
+
+    public static Specification<Doctor> search(String name, String email, String phone, Long specialtyId) {
+        Specification<Doctor> bySpecialty = specialtyId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("specialty").get("id"), specialtyId);
+        return allOf(
+                namePrefix(name),
+                equalsIgnoreCase("email", email),
+                equalTo("phone", phone),
+                bySpecialty
+        );
+    }
+}
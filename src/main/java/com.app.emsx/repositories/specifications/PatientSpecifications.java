@@ -0,0 +1,28 @@
+package com.app.emsx.repositories.specifications;
+
+import com.app.emsx.entities.Patient;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+import static com.app.emsx.repositories.specifications.SearchSpecifications.*;
+
+/**
+ * PatientSpecifications
+ * -----------------------------------------------------
+ * ✔ Construye la consulta dinámica de /api/patients/search
+ */
+public final class PatientSpecifications {
+
+    private PatientSpecifications() {
+    }
+
+    public static Specification<Patient> search(String name, String email, String phone, LocalDate bornFrom, LocalDate bornTo) {
+        return allOf(
+                namePrefix(name),
+                equalsIgnoreCase("email", email),
+                equalTo("phone", phone),
+                dateBetween("dateOfBirth", bornFrom, bornTo)
+        );
+    }
+}
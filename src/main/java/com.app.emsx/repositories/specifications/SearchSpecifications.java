@@ -0,0 +1,97 @@
+package com.app.emsx.repositories.specifications;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SearchSpecifications
+ * -----------------------------------------------------
+ * ✔ Bloques reutilizables para las búsquedas dinámicas (JPA Specifications)
+ * ✔ Cada filtro devuelve null si no aplica, así Spring Data lo ignora
+ * ✔ Las expresiones coinciden con los índices de schema-postgresql.sql
+ *   (lower(col) varchar_pattern_ops para prefijos, lower(email) para igualdad)
+ */
+public final class SearchSpecifications {
+
+    private SearchSpecifications() {
+    }
+
+    /**
+     * ✅ Cada palabra de "text" debe ser prefijo del nombre o del apellido
+     * Ejemplo: "ana lo" → (first LIKE 'ana%' OR last LIKE 'ana%') AND (first LIKE 'lo%' OR last LIKE 'lo%')
+     */
+    public static <T> Specification<T> namePrefix(String text) {
+        if (text == null || text.isBlank()) return null;
+        String[] terms = text.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        return (root, query, cb) -> {
+            Expression<String> firstName = cb.lower(root.get("firstName"));
+            Expression<String> lastName = cb.lower(root.get("lastName"));
+            List<Predicate> predicates = new ArrayList<>(terms.length);
+            for (String term : terms) {
+                String pattern = escapeLike(term) + "%";
+                predicates.add(cb.or(
+                        cb.like(firstName, pattern, '\\'),
+                        cb.like(lastName, pattern, '\\')
+                ));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * ✅ Igualdad sin distinguir mayúsculas (emails)
+     */
+    public static <T> Specification<T> equalsIgnoreCase(String attribute, String value) {
+        if (value == null || value.isBlank()) return null;
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(root.get(attribute)), normalized);
+    }
+
+    /**
+     * ✅ Igualdad exacta (teléfonos, ids)
+     */
+    public static <T> Specification<T> equalTo(String attribute, Object value) {
+        if (value == null || (value instanceof String s && s.isBlank())) return null;
+        Object normalized = value instanceof String s ? s.trim() : value;
+        return (root, query, cb) -> cb.equal(root.get(attribute), normalized);
+    }
+
+    /**
+     * ✅ Rango de fechas inclusivo; cualquiera de los extremos puede omitirse
+     */
+    public static <T> Specification<T> dateBetween(String attribute, LocalDate from, LocalDate to) {
+        if (from == null && to == null) return null;
+        return (root, query, cb) -> {
+            if (from != null && to != null) return cb.between(root.get(attribute), from, to);
+            if (from != null) return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            return cb.lessThanOrEqualTo(root.get(attribute), to);
+        };
+    }
+
+    /**
+     * ✅ Combina con AND los filtros presentes (los null se descartan)
+     */
+    @SafeVarargs
+    public static <T> Specification<T> allOf(Specification<T>... specifications) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            for (Specification<T> specification : specifications) {
+                if (specification == null) continue;
+                Predicate predicate = specification.toPredicate(root, query, cb);
+                if (predicate != null) predicates.add(predicate);
+            }
+            return predicates.isEmpty() ? null : cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // 🔹 Evita que %, _ o \ del usuario actúen como comodines
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,26 @@
+package com.app.emsx.repositories.specifications;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * SyncSpecifications
+ * -----------------------------------------------------
+ * ✔ Filas cambiadas desde un token de /api/sync: change_txid >= xmin del token
+ * ✔ Un solo predicado sobre la columna indexada de la tabla (idx_<tabla>_change_txid):
+ *   los cambios de nombres que el DTO toma de otras tablas ya marcan la fila
+ *   (triggers de schema-postgresql.sql, ver ChangeTracking)
+ */
+public final class SyncSpecifications {
+
+    private static final String CHANGE_TXID = "changeTxid";
+
+    private SyncSpecifications() {
+    }
+
+    /**
+     * ✅ null = sincronización completa (sin filtro)
+     */
+    public static <T> Specification<T> changedSince(Long txid) {
+        return (root, query, cb) -> txid == null ? null : cb.greaterThanOrEqualTo(root.get(CHANGE_TXID), txid);
+    }
+}
@@ -0,0 +1,13 @@
+package com.app.emsx.security;
+
+/**
+ * JwtAuthMode (jwt.auth-mode)
+ * -----------------------------------------------------
+ * ✔ DATABASE: el usuario se carga de la tabla users (cacheado por token, ver JwtAuthenticationCache)
+ * ✔ CLAIMS: la autenticación se arma sólo con los claims verificados (sub, roles, uid),
+ *   sin acceder a la BD; los cambios de rol se ven al emitir un token nuevo
+ */
+public enum JwtAuthMode {
+    DATABASE,
+    CLAIMS
+}
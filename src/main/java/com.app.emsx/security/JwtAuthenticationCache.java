@@ -0,0 +1,80 @@
+package com.app.emsx.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * JwtAuthenticationCache
+ * -----------------------------------------------------
+ * ✔ Guarda, por token, los claims ya verificados y el usuario resuelto
+ *   (User de la BD o JwtPrincipal en modo CLAIMS)
+ * ✔ Clave = SHA-256 del token (el token completo no queda en memoria como clave)
+ * ✔ Acotada por tamaño (jwt.cache.max-size) y por tiempo: cada entrada vive
+ *   lo que sea menor entre jwt.cache.ttl y la expiración del propio token
+ * ✔ jwt.cache.ttl limita cuánto tarda en verse un cambio de rol o un usuario eliminado
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    /**
+     * Token verificado: claims + principal y roles con los que se autentica la petición
+     */
+    public record Entry(Claims claims, Object principal, Collection<? extends GrantedAuthority> authorities) {
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public JwtAuthenticationCache(@Value("${jwt.cache.ttl:5m}") Duration ttl,
+                                  @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long untilExpiration = entry.claims().getExpiration().getTime() - System.currentTimeMillis();
+                        return Duration.ofMillis(Math.max(0, Math.min(untilExpiration, ttl.toMillis()))).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * ✅ Devuelve la entrada del token; si no está, la resuelve (verificación + carga del usuario)
+     * Si resolver lanza excepción (token inválido o expirado) no se guarda nada
+     */
+    public Entry get(String token, Function<String, Entry> resolver) {
+        return cache.get(digest(token), key -> resolver.apply(token));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
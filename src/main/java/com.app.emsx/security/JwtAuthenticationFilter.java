@@ -1,13 +1,18 @@
 package com.app.emsx.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,13 +21,24 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Timer de la autenticación: operation = modo (database/claims), outcome = resultado
+    private static final String AUTH_TIMER = "emsx.auth.jwt";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final JwtAuthenticationCache authenticationCache;
+    private final TokenDenyList denyList;
+    private final MeterRegistry meterRegistry;
+
+    // DATABASE (por defecto) o CLAIMS: ver JwtAuthMode
+    @Value("${jwt.auth-mode:database}")
+    private JwtAuthMode authMode;
 
     @Override
     protected void doFilterInternal(
@@ -31,16 +47,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
 
-        // 🔹 1) Ignorar endpoints públicos de auth
+        // 🔹 1) Ignorar endpoints públicos de auth (/me y /logout sí requieren token)
         String path = request.getServletPath();
-        if (path.startsWith("/api/auth/")) {
+        if (path.equals("/api/auth/login") || path.equals("/api/auth/register")) {
             filterChain.doFilter(request, response);
             return;
         }
 
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         final String jwt;
-        final String username;
+        final JwtAuthenticationCache.Entry verified;
 
         // 🔹 2) Si no hay Authorization o no es Bearer, seguir sin tocar nada
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -51,37 +67,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 🧾 Extraer el token JWT (sin la palabra "Bearer ")
         jwt = authHeader.substring(7);
 
+        // ⏱️ Sólo la autenticación se mide (emsx.auth.jwt); el resto de la cadena queda fuera
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            // 👤 Extraer usuario desde el token
-            username = jwtService.extractUsername(jwt);
-        } catch (ExpiredJwtException ex) {
-            // 🔹 Token expirado: lo tratamos como no autenticado
-            // Opciones:
-            //   - Dejar pasar y que luego Security devuelva 401 si el endpoint requiere auth
-            //   - O responder aquí con 401
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("Token expirado");
-            return;
-        }
+            try {
+                // 👤 Token verificado + usuario: se resuelve una vez por token y luego sale de la caché
+                verified = authenticationCache.get(jwt, this::verify);
+            } catch (ExpiredJwtException ex) {
+                // 🔹 Token expirado: lo tratamos como no autenticado
+                // Opciones:
+                //   - Dejar pasar y que luego Security devuelva 401 si el endpoint requiere auth
+                //   - O responder aquí con 401
+                outcome = "expired";
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.getWriter().write("Token expirado");
+                return;
+            }
 
-        // 🔐 Validar token si aún no hay autenticación en contexto
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // ⛔ Token revocado (logout) antes de su expiración
+            if (verified != null && denyList.isRevoked(verified.claims())) {
+                outcome = "revoked";
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.getWriter().write("Token revocado");
+                return;
+            }
+            outcome = verified != null ? "authenticated" : "invalid";
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            // 🔐 Autenticar si el token es válido y aún no hay autenticación en contexto
+            if (verified != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                verified.principal(),
                                 null,
-                                userDetails.getAuthorities()
+                                verified.authorities()
                         );
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+        } finally {
+            sample.stop(meterRegistry.timer(AUTH_TIMER, "operation", authMode.name().toLowerCase(), "outcome", outcome));
         }
 
         // 🚀 Continuar con la cadena de filtros
         filterChain.doFilter(request, response);
     }
+
+    // 🔑 Verifica firma y expiración (un solo parse) y resuelve el principal; null = token no válido
+    private JwtAuthenticationCache.Entry verify(String jwt) {
+        Claims claims = jwtService.extractAllClaims(jwt);
+        if (claims.getSubject() == null) {
+            return null;
+        }
+        if (authMode == JwtAuthMode.CLAIMS) {
+            // Sin BD: sub, roles y uid ya vienen firmados en el token
+            List<String> roles = jwtService.extractRoles(claims);
+            JwtPrincipal principal = new JwtPrincipal(jwtService.extractUserId(claims), claims.getSubject(), roles);
+            return new JwtAuthenticationCache.Entry(claims, principal,
+                    roles.stream().map(SimpleGrantedAuthority::new).toList());
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        return jwtService.isTokenValid(claims, userDetails)
+                ? new JwtAuthenticationCache.Entry(claims, userDetails, userDetails.getAuthorities())
+                : null;
+    }
 }
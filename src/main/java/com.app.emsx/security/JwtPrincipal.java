@@ -0,0 +1,18 @@
+package com.app.emsx.security;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * JwtPrincipal
+ * -----------------------------------------------------
+ * ✔ Usuario autenticado en modo CLAIMS (jwt.auth-mode=claims), tomado del token
+ * ✔ getName() = email (subject), igual que User.getUsername() en modo DATABASE
+ */
+public record JwtPrincipal(Long id, String email, List<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
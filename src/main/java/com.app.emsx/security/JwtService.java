@@ -1,14 +1,18 @@
 package com.app.emsx.security;
 
+import com.app.emsx.entities.User;
 import io.github.cdimascio.dotenv.Dotenv;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Function;
 
@@ -18,6 +22,7 @@ import java.util.function.Function;
  * ✔ Genera y valida tokens JWT
  * ✔ Carga la clave desde .env o variables del sistema
  * ✔ Extrae claims, usuario y expiración
+ * ✔ Claims propios: roles (lista de nombres), uid (id del usuario) y jti (id del token, para revocarlo)
  */
 @Service
 public class JwtService {
@@ -28,6 +33,10 @@ public class JwtService {
 
     private Key key;
 
+    // Vida de los tokens emitidos; con jwt.auth-mode=claims conviene que sea corta
+    @Value("${jwt.expiration:24h}")
+    private Duration expiration;
+
     /**
      * ✅ Inicializa la clave al iniciar el servicio (producción segura)
      */
@@ -79,8 +88,8 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    // ✅ Parse completo del token
-    private Claims extractAllClaims(String token) {
+    // ✅ Parse completo del token (verifica firma y expiración)
+    public Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSignInKey())
                 .build()
@@ -91,30 +100,52 @@ public class JwtService {
     // ✅ Genera token con claims extra y roles
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("roles", userDetails.getAuthorities());
-
-
+        claims.put("roles", userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        if (userDetails instanceof User user) {
+            claims.put("uid", user.getId());
+        }
 
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000)) // 10 horas
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration.toMillis()))
                 .signWith(getSignInKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    // ✅ Valida token
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    // ✅ Roles del token; acepta también el formato anterior ([{"authority": "ROLE_X"}])
+    public List<String> extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (Object value : values) {
+            if (value instanceof Map<?, ?> map && map.get("authority") != null) {
+                names.add(map.get("authority").toString());
+            } else if (value != null) {
+                names.add(value.toString());
+            }
+        }
+        return names;
+    }
+
+    // ✅ Id del usuario (null en tokens emitidos antes de incluir uid)
+    public Long extractUserId(Claims claims) {
+        Object uid = claims.get("uid");
+        return uid instanceof Number number ? number.longValue() : null;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // ✅ Valida token
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // ✅ Valida claims ya verificados (sin volver a parsear el token)
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 }
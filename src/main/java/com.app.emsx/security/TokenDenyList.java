@@ -0,0 +1,55 @@
+package com.app.emsx.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * TokenDenyList
+ * -----------------------------------------------------
+ * ✔ Tokens revocados (logout) antes de su expiración, por jti
+ * ✔ Compacta: cada jti se descarta solo al llegar la expiración del token,
+ *   desde ahí el propio token ya no es válido
+ * ✔ En memoria, por instancia: con varias instancias conviene una expiración corta (jwt.expiration)
+ */
+@Component
+public class TokenDenyList {
+
+    private final Cache<String, Long> revoked;
+
+    public TokenDenyList(@Value("${jwt.deny-list.max-size:100000}") long maxSize) {
+        this.revoked = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String jti, Long expiresAt, long currentTime) {
+                        return Math.max(0, expiresAt - System.currentTimeMillis()) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String jti, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String jti, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public void revoke(Claims claims) {
+        if (claims.getId() != null) {
+            revoked.put(claims.getId(), claims.getExpiration().getTime());
+        }
+    }
+
+    // Tokens sin jti (emitidos antes de la deny-list) no se pueden revocar
+    public boolean isRevoked(Claims claims) {
+        return claims.getId() != null && revoked.getIfPresent(claims.getId()) != null;
+    }
+}
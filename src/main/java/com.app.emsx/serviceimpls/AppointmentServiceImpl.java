@@ -1,5 +1,12 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.concurrency.RetryOnConflict;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.Keyset;
+import com.app.emsx.common.pagination.PageQuery;
+import com.app.emsx.dtos.appointment.AppointmentCalendarQuery;
 import com.app.emsx.dtos.appointment.AppointmentRequest;
 import com.app.emsx.dtos.appointment.AppointmentResponse;
 import com.app.emsx.entities.Appointment;
@@ -11,18 +18,34 @@ import com.app.emsx.mappers.AppointmentMapper;
 import com.app.emsx.repositories.AppointmentRepository;
 import com.app.emsx.repositories.DoctorRepository;
 import com.app.emsx.repositories.PatientRepository;
+import com.app.emsx.repositories.projections.ResponseProjections;
 import com.app.emsx.services.AppointmentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Transactional
 @RequiredArgsConstructor
 public class AppointmentServiceImpl implements AppointmentService {
 
+    // Rango máximo de la vista de calendario (días)
+    private static final int MAX_CALENDAR_DAYS = 31;
+
+    // Claves de orden permitidas en el listado paginado (?sort=)
+    private static final Map<String, List<String>> SORTS = Map.of(
+            "id", List.of("id"),
+            "date", List.of("date", "time", "id"));
+
     private final AppointmentRepository repository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
@@ -59,6 +82,8 @@ public class AppointmentServiceImpl implements AppointmentService {
             if (!(status.equals("SCHEDULED") || status.equals("COMPLETED") || status.equals("CANCELLED"))) {
                 throw new BusinessRuleException("El estado de la cita debe ser SCHEDULED, COMPLETED o CANCELLED");
             }
+            // Se guarda normalizado para que los índices de horario reconozcan CANCELLED
+            request.setStatus(status);
         }
         // Verificar que el paciente exista
         Patient patient = patientRepository.findById(request.getPatientId())
@@ -67,13 +92,17 @@ public class AppointmentServiceImpl implements AppointmentService {
         Doctor doctor = doctorRepository.findById(request.getDoctorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor no encontrado con ID: " + request.getDoctorId()));
         Appointment appointment = mapper.toEntity(request, patient, doctor);
-        return mapper.toResponse(repository.save(appointment));
+        // Verificar que el doctor y el paciente tengan libre ese horario
+        checkScheduleConflicts(appointment, 0L);
+        return mapper.toResponse(saveBooking(appointment));
     }
 
     @Override
-    public AppointmentResponse update(Long id, AppointmentRequest request) {
+    @RetryOnConflict
+    public AppointmentResponse update(Long id, AppointmentRequest request, Long expectedVersion) {
         Appointment appointment = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cita no encontrada con ID: " + id));
+        IfMatch.check(expectedVersion, appointment.getVersion());
         // Validar fecha de la cita al actualizar
         if (request.getDate() != null && !request.getDate().trim().isEmpty()) {
             try {
@@ -101,6 +130,8 @@ public class AppointmentServiceImpl implements AppointmentService {
             if (!(status.equals("SCHEDULED") || status.equals("COMPLETED") || status.equals("CANCELLED"))) {
                 throw new BusinessRuleException("El estado de la cita debe ser SCHEDULED, COMPLETED o CANCELLED");
             }
+            // Se guarda normalizado para que los índices de horario reconozcan CANCELLED
+            request.setStatus(status);
         }
         Patient patient = patientRepository.findById(request.getPatientId())
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente no encontrado con ID: " + request.getPatientId()));
@@ -108,25 +139,96 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor no encontrado con ID: " + request.getDoctorId()));
 
         mapper.updateEntityFromRequest(request, appointment, patient, doctor);
-        return mapper.toResponse(repository.save(appointment));
+        checkScheduleConflicts(appointment, appointment.getId());
+        return mapper.toResponse(saveBooking(appointment));
+    }
+
+    // Rechaza horarios ocupados por otra cita activa del doctor o del paciente
+    // Las citas canceladas no ocupan horario
+    private void checkScheduleConflicts(Appointment appointment, Long excludeId) {
+        if (appointment.getDate() == null || appointment.getTime() == null
+                || "CANCELLED".equals(appointment.getStatus())) {
+            return;
+        }
+        if (repository.existsDoctorSlot(appointment.getDoctor().getId(), appointment.getDate(), appointment.getTime(), excludeId)) {
+            throw new BusinessRuleException("El doctor ya tiene una cita el " + appointment.getDate() + " a las " + appointment.getTime());
+        }
+        if (repository.existsPatientSlot(appointment.getPatient().getId(), appointment.getDate(), appointment.getTime(), excludeId)) {
+            throw new BusinessRuleException("El paciente ya tiene una cita el " + appointment.getDate() + " a las " + appointment.getTime());
+        }
+    }
+
+    // Si otra reserva concurrente ganó el horario, el índice único de la BD lo rechaza
+    private Appointment saveBooking(Appointment appointment) {
+        try {
+            return repository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.contains("uq_appointments_")) {
+                throw new BusinessRuleException("El horario seleccionado ya no está disponible", e);
+            }
+            throw e;
+        }
     }
 
     @Override
-    public void delete(Long id) {
+    @RetryOnConflict
+    public void delete(Long id, Long expectedVersion) {
         Appointment appointment = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cita no encontrada con ID: " + id));
+        IfMatch.check(expectedVersion, appointment.getVersion());
         repository.delete(appointment);
     }
 
     @Override
-    public AppointmentResponse findById(Long id) {
-        Appointment appointment = repository.findById(id)
+    @Transactional(readOnly = true)
+    public AppointmentResponse findById(Long id, FieldsQuery fields) {
+        return repository.findProjectedById(ResponseProjections.APPOINTMENT.only(fields.names()), id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cita no encontrada con ID: " + id));
-        return mapper.toResponse(appointment);
     }
 
     @Override
-    public List<AppointmentResponse> findAll() {
-        return repository.findAll().stream().map(mapper::toResponse).toList();
+    @Transactional(readOnly = true)
+    public void streamAll(FieldsQuery fields, Consumer<? super AppointmentResponse> sink) {
+        try (Stream<AppointmentResponse> rows = repository.streamAllProjected(
+                ResponseProjections.APPOINTMENT.only(fields.names()), Sort.by("id"))) {
+            rows.forEach(sink);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentResponse> findPage(PageQuery query, FieldsQuery fields) {
+        return Keyset.page(repository, ResponseProjections.APPOINTMENT.only(fields.names()), SORTS, query);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentResponse> calendar(AppointmentCalendarQuery query, FieldsQuery fields) {
+        // Validar el rango de fechas: from obligatorio, to por defecto igual a from
+        if (query.getFrom() == null || query.getFrom().isBlank()) {
+            throw new BusinessRuleException("La fecha inicial (from) es obligatoria");
+        }
+        LocalDate from = parseCalendarDate(query.getFrom());
+        LocalDate to = query.getTo() == null || query.getTo().isBlank() ? from : parseCalendarDate(query.getTo());
+        if (to.isBefore(from)) {
+            throw new BusinessRuleException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+        // Rango inclusivo: from + 30 días ya son 31 días de calendario
+        if (from.plusDays(MAX_CALENDAR_DAYS - 1).isBefore(to)) {
+            throw new BusinessRuleException("El rango del calendario no puede superar " + MAX_CALENDAR_DAYS + " días");
+        }
+        String status = query.getStatus() == null || query.getStatus().isBlank()
+                ? null : query.getStatus().trim().toUpperCase();
+        return repository.findCalendar(ResponseProjections.APPOINTMENT.only(fields.names()),
+                query.getDoctorId(), query.getPatientId(), status, from, to);
+    }
+
+    private LocalDate parseCalendarDate(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (Exception e) {
+            throw new BusinessRuleException("Formato de fecha inválido: " + value);
+        }
     }
 }
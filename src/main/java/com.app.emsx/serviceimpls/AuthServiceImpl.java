@@ -7,6 +7,7 @@ import com.app.emsx.entities.User;
 import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.repositories.UserRepository;
 import com.app.emsx.security.JwtService;
+import com.app.emsx.security.TokenDenyList;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -19,6 +20,7 @@ import org.springframework.stereotype.Service;
  * ✔ Gestiona registro y autenticación de usuarios
  * ✔ Genera tokens JWT válidos con roles incluidos
  * ✔ Retorna la respuesta de autenticación al frontend
+ * ✔ Revoca el token actual al cerrar sesión (TokenDenyList)
  */
 @Service
 @RequiredArgsConstructor
@@ -28,6 +30,7 @@ public class AuthServiceImpl {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenDenyList denyList;
 
     /**
      * ✅ Registrar un nuevo usuario (modo desarrollo con defaults)
@@ -122,4 +125,12 @@ public class AuthServiceImpl {
                 .role(user.getRole())
                 .build();
     }
+
+    /**
+     * ✅ Cerrar sesión: el token queda revocado hasta su expiración
+     * (el filtro JWT ya verificó el token para llegar aquí)
+     */
+    public void logout(String token) {
+        denyList.revoke(jwtService.extractAllClaims(token));
+    }
 }
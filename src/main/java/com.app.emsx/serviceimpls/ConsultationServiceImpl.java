@@ -1,5 +1,11 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.concurrency.RetryOnConflict;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.Keyset;
+import com.app.emsx.common.pagination.PageQuery;
 import com.app.emsx.dtos.consultation.ConsultationRequest;
 import com.app.emsx.dtos.consultation.ConsultationResponse;
 import com.app.emsx.entities.Appointment;
@@ -11,16 +17,27 @@ import com.app.emsx.mappers.ConsultationMapper;
 import com.app.emsx.repositories.AppointmentRepository;
 import com.app.emsx.repositories.ConsultationRepository;
 import com.app.emsx.repositories.MedicalRecordRepository;
+import com.app.emsx.repositories.projections.ResponseProjections;
 import com.app.emsx.services.ConsultationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Transactional
 @RequiredArgsConstructor
 public class ConsultationServiceImpl implements ConsultationService {
 
+    // Claves de orden permitidas en el listado paginado (?sort=)
+    private static final Map<String, List<String>> SORTS = Map.of(
+            "id", List.of("id"));
+
     private final ConsultationRepository repository;
     private final AppointmentRepository appointmentRepository;
     private final MedicalRecordRepository medicalRecordRepository;
@@ -43,9 +60,11 @@ public class ConsultationServiceImpl implements ConsultationService {
     }
 
     @Override
-    public ConsultationResponse update(Long id, ConsultationRequest request) {
+    @RetryOnConflict
+    public ConsultationResponse update(Long id, ConsultationRequest request, Long expectedVersion) {
         Consultation consultation = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Consulta no encontrada con ID: " + id));
+        IfMatch.check(expectedVersion, consultation.getVersion());
         // Validar longitud máxima de las notas al actualizar
         if (request.getNotes() != null && request.getNotes().length() > 500) {
             throw new BusinessRuleException("Las notas de la consulta no pueden tener más de 500 caracteres");
@@ -58,25 +77,37 @@ public class ConsultationServiceImpl implements ConsultationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Historia médica no encontrada con ID: " + request.getMedicalRecordId()));
 
         mapper.updateEntityFromRequest(request, consultation, appointment, record);
-        return mapper.toResponse(repository.save(consultation));
+        return mapper.toResponse(repository.saveAndFlush(consultation));
     }
 
     @Override
-    public void delete(Long id) {
+    @RetryOnConflict
+    public void delete(Long id, Long expectedVersion) {
         Consultation consultation = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Consulta no encontrada con ID: " + id));
+        IfMatch.check(expectedVersion, consultation.getVersion());
         repository.delete(consultation);
     }
 
     @Override
-    public ConsultationResponse findById(Long id) {
-        Consultation consultation = repository.findById(id)
+    @Transactional(readOnly = true)
+    public ConsultationResponse findById(Long id, FieldsQuery fields) {
+        return repository.findProjectedById(ResponseProjections.CONSULTATION.only(fields.names()), id)
                 .orElseThrow(() -> new ResourceNotFoundException("Consulta no encontrada con ID: " + id));
-        return mapper.toResponse(consultation);
     }
 
     @Override
-    public List<ConsultationResponse> findAll() {
-        return repository.findAll().stream().map(mapper::toResponse).toList();
+    @Transactional(readOnly = true)
+    public void streamAll(FieldsQuery fields, Consumer<? super ConsultationResponse> sink) {
+        try (Stream<ConsultationResponse> rows = repository.streamAllProjected(
+                ResponseProjections.CONSULTATION.only(fields.names()), Sort.by("id"))) {
+            rows.forEach(sink);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ConsultationResponse> findPage(PageQuery query, FieldsQuery fields) {
+        return Keyset.page(repository, ResponseProjections.CONSULTATION.only(fields.names()), SORTS, query);
     }
 }
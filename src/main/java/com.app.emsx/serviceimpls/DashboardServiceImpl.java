@@ -0,0 +1,61 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.dtos.dashboard.DailyCount;
+import com.app.emsx.dtos.dashboard.DashboardStatsResponse;
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.repositories.DashboardCounterRepository;
+import com.app.emsx.services.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.app.emsx.repositories.DashboardCounterRepository.*;
+
+/**
+ * DashboardServiceImpl
+ * -----------------------------------------------------
+ * ✔ Lee los acumulados de dashboard_counters (mantenidos por DashboardCounterListener)
+ * ✔ No cuenta filas de pacientes, doctores ni citas: el costo no crece con los datos
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class DashboardServiceImpl implements DashboardService {
+
+    // Rango máximo de la tendencia diaria (días)
+    private static final int MAX_TREND_DAYS = 90;
+
+    private final DashboardCounterRepository counters;
+
+    @Override
+    public DashboardStatsResponse stats(int days) {
+        if (days < 1 || days > MAX_TREND_DAYS) {
+            throw new BusinessRuleException("La tendencia debe abarcar entre 1 y " + MAX_TREND_DAYS + " días");
+        }
+        return DashboardStatsResponse.builder()
+                .patients(counters.get(PATIENTS, TOTAL))
+                .doctors(counters.get(DOCTORS, TOTAL))
+                .appointments(counters.get(APPOINTMENTS, TOTAL))
+                .appointmentsByStatus(counters.findByMetric(APPOINTMENTS_BY_STATUS))
+                .appointmentsBySpecialty(counters.findAppointmentsBySpecialty())
+                .trend(trend(days))
+                .build();
+    }
+
+    // Últimos "days" días hasta hoy, completando con 0 los días sin citas
+    private List<DailyCount> trend(int days) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        Map<String, Long> values = counters.findByMetricBetween(APPOINTMENTS_BY_DAY, from.toString(), to.toString());
+        List<DailyCount> trend = new ArrayList<>(days);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            trend.add(new DailyCount(day.toString(), values.getOrDefault(day.toString(), 0L)));
+        }
+        return trend;
+    }
+}
@@ -1,5 +1,11 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.concurrency.RetryOnConflict;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.Keyset;
+import com.app.emsx.common.pagination.PageQuery;
 import com.app.emsx.dtos.medicalrecord.MedicalRecordRequest;
 import com.app.emsx.dtos.medicalrecord.MedicalRecordResponse;
 import com.app.emsx.entities.MedicalRecord;
@@ -9,16 +15,27 @@ import com.app.emsx.exceptions.ResourceNotFoundException;
 import com.app.emsx.mappers.MedicalRecordMapper;
 import com.app.emsx.repositories.MedicalRecordRepository;
 import com.app.emsx.repositories.PatientRepository;
+import com.app.emsx.repositories.projections.ResponseProjections;
 import com.app.emsx.services.MedicalRecordService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Transactional
 @RequiredArgsConstructor
 public class MedicalRecordServiceImpl implements MedicalRecordService {
 
+    // Claves de orden permitidas en el listado paginado (?sort=)
+    private static final Map<String, List<String>> SORTS = Map.of(
+            "id", List.of("id"));
+
     private final MedicalRecordRepository repository;
     private final PatientRepository patientRepository;
     private final MedicalRecordMapper mapper;
@@ -45,9 +62,11 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
     }
 
     @Override
-    public MedicalRecordResponse update(Long id, MedicalRecordRequest request) {
+    @RetryOnConflict
+    public MedicalRecordResponse update(Long id, MedicalRecordRequest request, Long expectedVersion) {
         MedicalRecord record = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Historia médica no encontrada con ID: " + id));
+        IfMatch.check(expectedVersion, record.getVersion());
         // Validar longitud máxima del diagnóstico al actualizar
         if (request.getDiagnosis() != null && request.getDiagnosis().length() > 255) {
             throw new BusinessRuleException("El diagnóstico no puede tener más de 255 caracteres");
@@ -65,25 +84,37 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente no encontrado con ID: " + request.getPatientId()));
 
         mapper.updateEntityFromRequest(request, record, patient);
-        return mapper.toResponse(repository.save(record));
+        return mapper.toResponse(repository.saveAndFlush(record));
     }
 
     @Override
-    public void delete(Long id) {
+    @RetryOnConflict
+    public void delete(Long id, Long expectedVersion) {
         MedicalRecord record = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Historia médica no encontrada con ID: " + id));
+        IfMatch.check(expectedVersion, record.getVersion());
         repository.delete(record);
     }
 
     @Override
-    public MedicalRecordResponse findById(Long id) {
-        MedicalRecord record = repository.findById(id)
+    @Transactional(readOnly = true)
+    public MedicalRecordResponse findById(Long id, FieldsQuery fields) {
+        return repository.findProjectedById(ResponseProjections.MEDICAL_RECORD.only(fields.names()), id)
                 .orElseThrow(() -> new ResourceNotFoundException("Historia médica no encontrada con ID: " + id));
-        return mapper.toResponse(record);
     }
 
     @Override
-    public List<MedicalRecordResponse> findAll() {
-        return repository.findAll().stream().map(mapper::toResponse).toList();
+    @Transactional(readOnly = true)
+    public void streamAll(FieldsQuery fields, Consumer<? super MedicalRecordResponse> sink) {
+        try (Stream<MedicalRecordResponse> rows = repository.streamAllProjected(
+                ResponseProjections.MEDICAL_RECORD.only(fields.names()), Sort.by("id"))) {
+            rows.forEach(sink);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<MedicalRecordResponse> findPage(PageQuery query, FieldsQuery fields) {
+        return Keyset.page(repository, ResponseProjections.MEDICAL_RECORD.only(fields.names()), SORTS, query);
     }
 }
@@ -0,0 +1,309 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.common.bloom.ContactBloomFilters;
+import com.app.emsx.dtos.patient.PatientImportError;
+import com.app.emsx.dtos.patient.PatientImportReport;
+import com.app.emsx.dtos.patient.PatientRequest;
+import com.app.emsx.entities.Patient;
+import com.app.emsx.exceptions.BusinessRuleException;
+import com.app.emsx.mappers.PatientMapper;
+import com.app.emsx.repositories.DashboardCounterRepository;
+import com.app.emsx.repositories.PatientBulkRepository;
+import com.app.emsx.repositories.TableVersionRepository;
+import com.app.emsx.services.PatientImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * PatientImportServiceImpl
+ * -----------------------------------------------------
+ * ✔ Importación masiva de pacientes en streaming (CSV o NDJSON), lote a lote
+ * ✔ Cada fila pasa las mismas validaciones que POST /api/patients
+ *   (anotaciones de PatientRequest + PatientServiceImpl.validateRules)
+ * ✔ Unicidad de email/teléfono contra el archivo (en memoria) y contra la BD
+ *   (una consulta por lote, no una por fila)
+ * ✔ Cada lote se inserta en su propia transacción con JDBC batch;
+ *   las filas con error no detienen la importación y se informan por línea
+ * ✔ Si un alta concurrente gana la carrera (índice único entre la consulta y el INSERT),
+ *   el lote se reintenta fila a fila y sólo las filas en conflicto se rechazan
+ */
+@Service
+@RequiredArgsConstructor
+public class PatientImportServiceImpl implements PatientImportService {
+
+    // Filas por lote (una transacción, una consulta de unicidad y un batch de INSERT)
+    private static final int CHUNK_SIZE = 500;
+    // Máximo de errores detallados en la respuesta
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> CSV_REQUIRED = List.of("firstname", "lastname", "email", "phone");
+
+    private final PatientBulkRepository bulkRepository;
+    private final DashboardCounterRepository counters;
+    private final TableVersionRepository tableVersions;
+    private final ContactBloomFilters contactFilters;
+    private final PatientMapper mapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private record Row(long line, PatientRequest request) {
+    }
+
+    private record Candidate(long line, Patient patient) {
+    }
+
+    @Override
+    public PatientImportReport importPatients(InputStream body, String contentType) {
+        boolean ndjson = isNdjson(contentType);
+        Import state = new Import();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = ndjson ? null : readHeader(reader);
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            long line = ndjson ? 0 : 1;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) continue;
+                state.totalRows++;
+                try {
+                    chunk.add(new Row(line, ndjson ? parseJson(text) : parseCsv(text, header)));
+                } catch (BusinessRuleException e) {
+                    state.reject(line, null, e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, state, tx);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, state, tx);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo de importación", e);
+        }
+
+        state.errors.sort(Comparator.comparingLong(PatientImportError::getLine));
+        return PatientImportReport.builder()
+                .totalRows(state.totalRows)
+                .imported(state.imported)
+                .failed(state.failed)
+                .errors(state.errors)
+                .errorsTruncated(state.failed > state.errors.size())
+                .build();
+    }
+
+    private void importChunk(List<Row> rows, Import state, TransactionTemplate tx) {
+        // 1) Validaciones por fila + duplicados dentro del archivo
+        List<Row> valid = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            PatientRequest request = row.request();
+            String error = validate(request);
+            if (error == null && !state.seenEmails.add(request.getEmail())) {
+                error = "Email repetido en el archivo";
+            }
+            if (error == null && !state.seenPhones.add(request.getPhone())) {
+                error = "Teléfono repetido en el archivo";
+            }
+            if (error != null) {
+                state.reject(row.line(), request.getEmail(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) return;
+
+        // 2) Unicidad contra la BD: una sola consulta para todo el lote,
+        //    y ninguna si el filtro Bloom descarta todos los valores
+        boolean mightExist = valid.stream().anyMatch(row -> contactFilters.mightExist(
+                ContactBloomFilters.Table.PATIENTS, row.request().getEmail(), row.request().getPhone()));
+        PatientBulkRepository.Existing existing = !mightExist
+                ? new PatientBulkRepository.Existing(Set.of(), Set.of())
+                : bulkRepository.findExisting(
+                        valid.stream().map(row -> row.request().getEmail()).toList(),
+                        valid.stream().map(row -> row.request().getPhone()).toList());
+        List<Candidate> candidates = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            PatientRequest request = row.request();
+            if (existing.emails().contains(request.getEmail())) {
+                state.reject(row.line(), request.getEmail(), "Ya existe un paciente con ese email");
+            } else if (existing.phones().contains(request.getPhone())) {
+                state.reject(row.line(), request.getEmail(), "Ya existe un paciente con ese teléfono");
+            } else {
+                candidates.add(new Candidate(row.line(), mapper.toEntity(request)));
+            }
+        }
+        if (candidates.isEmpty()) return;
+
+        // 3) Todo el lote en una transacción; si otro alta insertó el mismo email/teléfono después
+        //    de la consulta, la transacción se revierte y se reintenta fila a fila
+        try {
+            tx.executeWithoutResult(status -> insert(candidates));
+            state.imported += candidates.size();
+        } catch (DataIntegrityViolationException e) {
+            for (Candidate candidate : candidates) {
+                try {
+                    tx.executeWithoutResult(status -> insert(List.of(candidate)));
+                    state.imported++;
+                } catch (DataIntegrityViolationException conflict) {
+                    state.reject(candidate.line(), candidate.patient().getEmail(), conflictMessage(conflict));
+                }
+            }
+        }
+    }
+
+    // Ids pooled + INSERT en batch + contador del dashboard y versión de la tabla (un UPSERT por lote)
+    private void insert(List<Candidate> candidates) {
+        List<Patient> patients = candidates.stream().map(Candidate::patient).toList();
+        List<Long> ids = bulkRepository.nextIds(patients.size());
+        for (int i = 0; i < patients.size(); i++) {
+            patients.get(i).setId(ids.get(i));
+        }
+        bulkRepository.insert(patients);
+        patients.forEach(p -> contactFilters.record(ContactBloomFilters.Table.PATIENTS, p.getEmail(), p.getPhone()));
+        counters.add(DashboardCounterRepository.PATIENTS, DashboardCounterRepository.TOTAL, patients.size());
+        tableVersions.bump(TableVersionRepository.PATIENTS);
+    }
+
+    private static String conflictMessage(DataIntegrityViolationException e) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage());
+        return detail.contains("uq_patients_phone")
+                ? "Ya existe un paciente con ese teléfono"
+                : "Ya existe un paciente con ese email";
+    }
+
+    // Mismas reglas que POST /api/patients; null = fila válida
+    private String validate(PatientRequest request) {
+        Set<ConstraintViolation<PatientRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            PatientServiceImpl.validateRules(request);
+            return null;
+        } catch (BusinessRuleException e) {
+            return e.getMessage();
+        }
+    }
+
+    private boolean isNdjson(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.contains("ndjson") || type.contains("json")) return true;
+        if (type.contains("csv") || type.startsWith("text/plain")) return false;
+        throw new BusinessRuleException("Formato no soportado: use text/csv o application/x-ndjson");
+    }
+
+    // Encabezado CSV: nombres de columna (sin distinguir mayúsculas) → posición
+    private Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+        String first = reader.readLine();
+        if (first == null) {
+            throw new BusinessRuleException("El archivo CSV está vacío");
+        }
+        List<String> columns = splitCsv(first.startsWith("﻿") ? first.substring(1) : first);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.keySet().containsAll(CSV_REQUIRED)) {
+            throw new BusinessRuleException("El encabezado CSV debe incluir: firstName, lastName, email, phone (opcionales: address, dateOfBirth)");
+        }
+        return header;
+    }
+
+    private PatientRequest parseCsv(String text, Map<String, Integer> header) {
+        List<String> values = splitCsv(text);
+        return PatientRequest.builder()
+                .firstName(column(values, header, "firstname"))
+                .lastName(column(values, header, "lastname"))
+                .email(column(values, header, "email"))
+                .phone(column(values, header, "phone"))
+                .address(column(values, header, "address"))
+                .dateOfBirth(column(values, header, "dateofbirth"))
+                .build();
+    }
+
+    private PatientRequest parseJson(String text) {
+        try {
+            return objectMapper.readValue(text, PatientRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new BusinessRuleException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= values.size()) return null;
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // CSV de una línea por registro: separador coma, comillas dobles ("" = comilla literal)
+    private static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BusinessRuleException("Comillas sin cerrar en la fila CSV");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    // Estado acumulado de una importación
+    private static final class Import {
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private final List<PatientImportError> errors = new ArrayList<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Set<String> seenPhones = new HashSet<>();
+
+        private void reject(long line, String email, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PatientImportError(line, email, message));
+            }
+        }
+    }
+}
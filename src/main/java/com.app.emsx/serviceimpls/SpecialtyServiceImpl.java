@@ -1,5 +1,11 @@
 package com.app.emsx.serviceimpls;
 
+import com.app.emsx.common.concurrency.IfMatch;
+import com.app.emsx.common.concurrency.RetryOnConflict;
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.Keyset;
+import com.app.emsx.common.pagination.PageQuery;
 import com.app.emsx.dtos.specialty.SpecialtyRequest;
 import com.app.emsx.dtos.specialty.SpecialtyResponse;
 import com.app.emsx.entities.Specialty;
@@ -7,16 +13,27 @@ import com.app.emsx.exceptions.BusinessRuleException;
 import com.app.emsx.exceptions.ResourceNotFoundException;
 import com.app.emsx.mappers.SpecialtyMapper;
 import com.app.emsx.repositories.SpecialtyRepository;
+import com.app.emsx.repositories.projections.ResponseProjections;
 import com.app.emsx.services.SpecialtyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
+@Transactional
 @RequiredArgsConstructor
 public class SpecialtyServiceImpl implements SpecialtyService {
 
+    // Claves de orden permitidas en el listado paginado (?sort=)
+    private static final Map<String, List<String>> SORTS = Map.of(
+            "id", List.of("id"),
+            "name", List.of("name", "id"));
+
     private final SpecialtyRepository repository;
     private final SpecialtyMapper mapper;
 
@@ -40,9 +57,11 @@ public class SpecialtyServiceImpl implements SpecialtyService {
     }
 
     @Override
-    public SpecialtyResponse update(Long id, SpecialtyRequest request) {
+    @RetryOnConflict
+    public SpecialtyResponse update(Long id, SpecialtyRequest request, Long expectedVersion) {
         Specialty specialty = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Especialidad no encontrada con ID: " + id));
+        IfMatch.check(expectedVersion, specialty.getVersion());
         // Validar longitud máxima del nombre al actualizar
         // Se verifica que el nombre de la especialidad no supere los 50 caracteres al actualizar
         if (request.getName() != null && request.getName().length() > 50) {
@@ -62,25 +81,36 @@ public class SpecialtyServiceImpl implements SpecialtyService {
         }
 
         mapper.updateEntityFromRequest(request, specialty);
-        return mapper.toResponse(repository.save(specialty));
+        return mapper.toResponse(repository.saveAndFlush(specialty));
     }
 
     @Override
-    public void delete(Long id) {
+    @RetryOnConflict
+    public void delete(Long id, Long expectedVersion) {
         Specialty specialty = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Especialidad no encontrada con ID: " + id));
+        IfMatch.check(expectedVersion, specialty.getVersion());
         repository.delete(specialty);
     }
 
     @Override
-    public SpecialtyResponse findById(Long id) {
-        Specialty specialty = repository.findById(id)
+    @Transactional(readOnly = true)
+    public SpecialtyResponse findById(Long id, FieldsQuery fields) {
+        return repository.findProjectedById(ResponseProjections.SPECIALTY.only(fields.names()), id)
                 .orElseThrow(() -> new ResourceNotFoundException("Especialidad no encontrada con ID: " + id));
-        return mapper.toResponse(specialty);
     }
 
     @Override
-    public List<SpecialtyResponse> findAll() {
-        return repository.findAll().stream().map(mapper::toResponse).toList();
+    @Transactional(readOnly = true)
+    public void streamAll(FieldsQuery fields, Consumer<? super SpecialtyResponse> sink) {
+        // Catálogo chico: la lista sale de la caché de consultas en lugar de un cursor
+        repository.findAllProjected(ResponseProjections.SPECIALTY.only(fields.names()), Sort.by("id"))
+                .forEach(sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<SpecialtyResponse> findPage(PageQuery query, FieldsQuery fields) {
+        return Keyset.page(repository, ResponseProjections.SPECIALTY.only(fields.names()), SORTS, query);
     }
 }
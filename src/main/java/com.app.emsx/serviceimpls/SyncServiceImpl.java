@@ -0,0 +1,153 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.common.sync.SyncToken;
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.app.emsx.dtos.consultation.ConsultationResponse;
+import com.app.emsx.dtos.doctor.DoctorResponse;
+import com.app.emsx.dtos.medicalrecord.MedicalRecordResponse;
+import com.app.emsx.dtos.patient.PatientResponse;
+import com.app.emsx.dtos.specialty.SpecialtyResponse;
+import com.app.emsx.dtos.sync.SyncWindow;
+import com.app.emsx.repositories.AppointmentRepository;
+import com.app.emsx.repositories.ConsultationRepository;
+import com.app.emsx.repositories.DoctorRepository;
+import com.app.emsx.repositories.MedicalRecordRepository;
+import com.app.emsx.repositories.PatientRepository;
+import com.app.emsx.repositories.ProjectionExecutor;
+import com.app.emsx.repositories.SpecialtyRepository;
+import com.app.emsx.repositories.SyncChangeRepository;
+import com.app.emsx.repositories.projections.Projection;
+import com.app.emsx.repositories.projections.ResponseProjections;
+import com.app.emsx.services.SyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.app.emsx.repositories.specifications.SyncSpecifications.changedSince;
+
+/**
+ * SyncServiceImpl
+ * -----------------------------------------------------
+ * ✔ Sincronización delta de la app móvil: sólo lo creado, modificado o eliminado desde el token
+ * ✔ open() fija el token siguiente (xmin actual) antes de leer: lo que se escriba mientras
+ *   tanto vuelve a salir en la próxima llamada
+ * ✔ Cada colección se recorre con un cursor al serializar la respuesta (RowStream)
+ * ✔ Sin token, o con uno más viejo que la retención de bajas, la sincronización es completa
+ */
+@Service
+@Transactional(readOnly = true)
+public class SyncServiceImpl implements SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncServiceImpl.class);
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final SyncChangeRepository changes;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final SpecialtyRepository specialtyRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ConsultationRepository consultationRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final Duration tombstoneRetention;
+
+    public SyncServiceImpl(SyncChangeRepository changes,
+                           PatientRepository patientRepository,
+                           DoctorRepository doctorRepository,
+                           SpecialtyRepository specialtyRepository,
+                           AppointmentRepository appointmentRepository,
+                           ConsultationRepository consultationRepository,
+                           MedicalRecordRepository medicalRecordRepository,
+                           @Value("${sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.changes = changes;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.specialtyRepository = specialtyRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.consultationRepository = consultationRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Override
+    public SyncWindow open(String token) {
+        Instant now = Instant.now();
+        SyncToken next = new SyncToken(changes.snapshotXmin(), now);
+
+        SyncToken previous = token == null || token.isBlank() ? null : SyncToken.decode(token);
+        // Sin token o con bajas ya purgadas: el cliente reemplaza todo lo que tiene
+        if (previous == null || previous.issuedAt().isBefore(now.minus(tombstoneRetention))) {
+            return SyncWindow.builder()
+                    .token(next.encode())
+                    .full(true)
+                    .deleted(Map.of())
+                    .build();
+        }
+        return SyncWindow.builder()
+                .since(previous.xmin())
+                .token(next.encode())
+                .full(false)
+                .deleted(changes.findDeletionsSince(previous.xmin()))
+                .build();
+    }
+
+    @Override
+    public void streamPatients(Long since, Consumer<? super PatientResponse> sink) {
+        stream(patientRepository, ResponseProjections.PATIENT, since, sink);
+    }
+
+    @Override
+    public void streamDoctors(Long since, Consumer<? super DoctorResponse> sink) {
+        stream(doctorRepository, ResponseProjections.DOCTOR, since, sink);
+    }
+
+    @Override
+    public void streamSpecialties(Long since, Consumer<? super SpecialtyResponse> sink) {
+        stream(specialtyRepository, ResponseProjections.SPECIALTY, since, sink);
+    }
+
+    @Override
+    public void streamAppointments(Long since, Consumer<? super AppointmentResponse> sink) {
+        stream(appointmentRepository, ResponseProjections.APPOINTMENT, since, sink);
+    }
+
+    @Override
+    public void streamConsultations(Long since, Consumer<? super ConsultationResponse> sink) {
+        stream(consultationRepository, ResponseProjections.CONSULTATION, since, sink);
+    }
+
+    @Override
+    public void streamMedicalRecords(Long since, Consumer<? super MedicalRecordResponse> sink) {
+        stream(medicalRecordRepository, ResponseProjections.MEDICAL_RECORD, since, sink);
+    }
+
+    private static <T, R> void stream(ProjectionExecutor<T> repository, Projection<T, R> projection,
+                                      Long since, Consumer<? super R> sink) {
+        try (Stream<R> rows = repository.streamAllProjected(projection, changedSince(since), BY_ID,
+                ProjectionExecutor.STREAM_FETCH_SIZE)) {
+            rows.forEach(sink);
+        }
+    }
+
+    /**
+     * ✅ Bajas más viejas que la retención: los tokens de esa época reciben una sincronización completa
+     */
+    @Scheduled(fixedDelayString = "${sync.purge-interval:1h}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = changes.purgeDeletions(Instant.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.debug("Bajas de sincronización eliminadas: {}", purged);
+        }
+    }
+}
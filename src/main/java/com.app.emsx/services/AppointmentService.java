@@ -1,14 +1,21 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
+import com.app.emsx.dtos.appointment.AppointmentCalendarQuery;
 import com.app.emsx.dtos.appointment.AppointmentRequest;
 import com.app.emsx.dtos.appointment.AppointmentResponse;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AppointmentService {
     AppointmentResponse create(AppointmentRequest request);
-    AppointmentResponse update(Long id, AppointmentRequest request);
-    void delete(Long id);
-    AppointmentResponse findById(Long id);
-    List<AppointmentResponse> findAll();
+    AppointmentResponse update(Long id, AppointmentRequest request, Long expectedVersion);
+    void delete(Long id, Long expectedVersion);
+    AppointmentResponse findById(Long id, FieldsQuery fields);
+    void streamAll(FieldsQuery fields, Consumer<? super AppointmentResponse> sink);
+    CursorPage<AppointmentResponse> findPage(PageQuery query, FieldsQuery fields);
+    List<AppointmentResponse> calendar(AppointmentCalendarQuery query, FieldsQuery fields);
 }
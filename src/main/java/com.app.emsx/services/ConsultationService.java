@@ -1,14 +1,18 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
 import com.app.emsx.dtos.consultation.ConsultationRequest;
 import com.app.emsx.dtos.consultation.ConsultationResponse;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface ConsultationService {
     ConsultationResponse create(ConsultationRequest request);
-    ConsultationResponse update(Long id, ConsultationRequest request);
-    void delete(Long id);
-    ConsultationResponse findById(Long id);
-    List<ConsultationResponse> findAll();
+    ConsultationResponse update(Long id, ConsultationRequest request, Long expectedVersion);
+    void delete(Long id, Long expectedVersion);
+    ConsultationResponse findById(Long id, FieldsQuery fields);
+    void streamAll(FieldsQuery fields, Consumer<? super ConsultationResponse> sink);
+    CursorPage<ConsultationResponse> findPage(PageQuery query, FieldsQuery fields);
 }
@@ -0,0 +1,7 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.dashboard.DashboardStatsResponse;
+
+public interface DashboardService {
+    DashboardStatsResponse stats(int days);
+}
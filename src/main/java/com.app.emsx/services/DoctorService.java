@@ -1,14 +1,20 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
 import com.app.emsx.dtos.doctor.DoctorRequest;
 import com.app.emsx.dtos.doctor.DoctorResponse;
+import com.app.emsx.dtos.doctor.DoctorSearchCriteria;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface DoctorService {
     DoctorResponse create(DoctorRequest request);
-    DoctorResponse update(Long id, DoctorRequest request);
-    void delete(Long id);
-    DoctorResponse findById(Long id);
-    List<DoctorResponse> findAll();
+    DoctorResponse update(Long id, DoctorRequest request, Long expectedVersion);
+    void delete(Long id, Long expectedVersion);
+    DoctorResponse findById(Long id, FieldsQuery fields);
+    void streamAll(FieldsQuery fields, Consumer<? super DoctorResponse> sink);
+    CursorPage<DoctorResponse> findPage(PageQuery query, FieldsQuery fields);
+    CursorPage<DoctorResponse> search(DoctorSearchCriteria criteria, PageQuery query, FieldsQuery fields);
 }
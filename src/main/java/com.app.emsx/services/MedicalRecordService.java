@@ -1,14 +1,18 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
 import com.app.emsx.dtos.medicalrecord.MedicalRecordRequest;
 import com.app.emsx.dtos.medicalrecord.MedicalRecordResponse;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface MedicalRecordService {
     MedicalRecordResponse create(MedicalRecordRequest request);
-    MedicalRecordResponse update(Long id, MedicalRecordRequest request);
-    void delete(Long id);
-    MedicalRecordResponse findById(Long id);
-    List<MedicalRecordResponse> findAll();
+    MedicalRecordResponse update(Long id, MedicalRecordRequest request, Long expectedVersion);
+    void delete(Long id, Long expectedVersion);
+    MedicalRecordResponse findById(Long id, FieldsQuery fields);
+    void streamAll(FieldsQuery fields, Consumer<? super MedicalRecordResponse> sink);
+    CursorPage<MedicalRecordResponse> findPage(PageQuery query, FieldsQuery fields);
 }
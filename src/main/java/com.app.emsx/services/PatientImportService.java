@@ -0,0 +1,9 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.patient.PatientImportReport;
+
+import java.io.InputStream;
+
+public interface PatientImportService {
+    PatientImportReport importPatients(InputStream body, String contentType);
+}
@@ -1,14 +1,20 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
 import com.app.emsx.dtos.patient.PatientRequest;
 import com.app.emsx.dtos.patient.PatientResponse;
+import com.app.emsx.dtos.patient.PatientSearchCriteria;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface PatientService {
     PatientResponse create(PatientRequest request);
-    PatientResponse update(Long id, PatientRequest request);
-    void delete(Long id);
-    PatientResponse findById(Long id);
-    List<PatientResponse> findAll();
+    PatientResponse update(Long id, PatientRequest request, Long expectedVersion);
+    void delete(Long id, Long expectedVersion);
+    PatientResponse findById(Long id, FieldsQuery fields);
+    void streamAll(FieldsQuery fields, Consumer<? super PatientResponse> sink);
+    CursorPage<PatientResponse> findPage(PageQuery query, FieldsQuery fields);
+    CursorPage<PatientResponse> search(PatientSearchCriteria criteria, PageQuery query, FieldsQuery fields);
 }
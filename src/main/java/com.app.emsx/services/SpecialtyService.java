@@ -1,14 +1,18 @@
 package com.app.emsx.services;
 
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
 import com.app.emsx.dtos.specialty.SpecialtyRequest;
 import com.app.emsx.dtos.specialty.SpecialtyResponse;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface SpecialtyService {
     SpecialtyResponse create(SpecialtyRequest request);
-    SpecialtyResponse update(Long id, SpecialtyRequest request);
-    void delete(Long id);
-    SpecialtyResponse findById(Long id);
-    List<SpecialtyResponse> findAll();
+    SpecialtyResponse update(Long id, SpecialtyRequest request, Long expectedVersion);
+    void delete(Long id, Long expectedVersion);
+    SpecialtyResponse findById(Long id, FieldsQuery fields);
+    void streamAll(FieldsQuery fields, Consumer<? super SpecialtyResponse> sink);
+    CursorPage<SpecialtyResponse> findPage(PageQuery query, FieldsQuery fields);
 }
@@ -0,0 +1,21 @@
+package com.app.emsx.services;
+
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.app.emsx.dtos.consultation.ConsultationResponse;
+import com.app.emsx.dtos.doctor.DoctorResponse;
+import com.app.emsx.dtos.medicalrecord.MedicalRecordResponse;
+import com.app.emsx.dtos.patient.PatientResponse;
+import com.app.emsx.dtos.specialty.SpecialtyResponse;
+import com.app.emsx.dtos.sync.SyncWindow;
+
+import java.util.function.Consumer;
+
+public interface SyncService {
+    SyncWindow open(String token);
+    void streamPatients(Long since, Consumer<? super PatientResponse> sink);
+    void streamDoctors(Long since, Consumer<? super DoctorResponse> sink);
+    void streamSpecialties(Long since, Consumer<? super SpecialtyResponse> sink);
+    void streamAppointments(Long since, Consumer<? super AppointmentResponse> sink);
+    void streamConsultations(Long since, Consumer<? super ConsultationResponse> sink);
+    void streamMedicalRecords(Long since, Consumer<? super MedicalRecordResponse> sink);
+}
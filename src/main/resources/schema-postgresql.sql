@@ -0,0 +1,211 @@
+-- ---------------------------------------------------------------------------
+-- schema-postgresql.sql
+-- Objetos de esquema que JPA no puede declarar con @Index/@Table.
+-- Se ejecuta después de que Hibernate crea/actualiza las tablas
+-- (spring.jpa.defer-datasource-initialization=true), por eso todo es idempotente.
+-- ---------------------------------------------------------------------------
+
+-- Búsqueda por prefijo de nombre sin distinguir mayúsculas: lower(col) LIKE 'abc%'
+CREATE INDEX IF NOT EXISTS idx_patients_first_name_prefix ON patients (lower(first_name) varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_last_name_prefix ON patients (lower(last_name) varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_doctors_first_name_prefix ON doctors (lower(first_name) varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_doctors_last_name_prefix ON doctors (lower(last_name) varchar_pattern_ops);
+
+-- Búsqueda por email sin distinguir mayúsculas: lower(email) = ?
+CREATE INDEX IF NOT EXISTS idx_patients_email_lower ON patients (lower(email));
+CREATE INDEX IF NOT EXISTS idx_doctors_email_lower ON doctors (lower(email));
+
+-- Email y teléfono únicos por paciente / doctor. El servicio verifica antes (filtro Bloom +
+-- una consulta); estos índices son la garantía final frente a altas concurrentes.
+-- Una base con duplicados previos no puede crearlos: el chequeo de abajo detiene el arranque
+-- con la columna afectada y la consulta que los lista. Hay que corregirlos a mano (cambiar
+-- o vaciar el email/teléfono repetido, o fusionar los registros) y volver a arrancar.
+CREATE OR REPLACE FUNCTION emsx_assert_unique(tbl TEXT, col TEXT, idx TEXT) RETURNS void LANGUAGE plpgsql AS
+'DECLARE
+    duplicated BIGINT;
+BEGIN
+    IF to_regclass(idx) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format(''SELECT count(*) FROM (SELECT 1 FROM %I WHERE %I IS NOT NULL GROUP BY %I HAVING count(*) > 1) d'',
+                   tbl, col, col) INTO duplicated;
+    IF duplicated > 0 THEN
+        RAISE EXCEPTION ''No se puede crear %: % valores repetidos en %.%'', idx, duplicated, tbl, col
+            USING HINT = format(''SELECT %I, count(*) FROM %I GROUP BY %I HAVING count(*) > 1'', col, tbl, col);
+    END IF;
+END';
+
+SELECT emsx_assert_unique('patients', 'email', 'uq_patients_email');
+SELECT emsx_assert_unique('patients', 'phone', 'uq_patients_phone');
+SELECT emsx_assert_unique('doctors', 'email', 'uq_doctors_email');
+SELECT emsx_assert_unique('doctors', 'phone', 'uq_doctors_phone');
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_patients_email ON patients (email);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_patients_phone ON patients (phone);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_doctors_email ON doctors (email);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_doctors_phone ON doctors (phone);
+
+-- Claves de orden de la paginación keyset (Keyset / SORTS de cada servicio): NOT NULL.
+-- El cursor compara con = y >, y una clave NULL (ordenada al final) cortaría la paginación.
+-- Igual que con los índices únicos: si ya hay NULLs, el arranque se detiene con la consulta
+-- que los lista; hay que completarlos a mano y volver a arrancar.
+CREATE OR REPLACE FUNCTION emsx_set_not_null(tbl TEXT, col TEXT) RETURNS void LANGUAGE plpgsql AS
+'DECLARE
+    missing BIGINT;
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = tbl
+                 AND column_name = col AND is_nullable = ''NO'') THEN
+        RETURN;
+    END IF;
+    EXECUTE format(''SELECT count(*) FROM %I WHERE %I IS NULL'', tbl, col) INTO missing;
+    IF missing > 0 THEN
+        RAISE EXCEPTION ''No se puede marcar %.% como NOT NULL: % filas sin valor'', tbl, col, missing
+            USING HINT = format(''SELECT id FROM %I WHERE %I IS NULL'', tbl, col);
+    END IF;
+    EXECUTE format(''ALTER TABLE %I ALTER COLUMN %I SET NOT NULL'', tbl, col);
+END';
+
+SELECT emsx_set_not_null('patients', 'last_name');
+SELECT emsx_set_not_null('patients', 'first_name');
+SELECT emsx_set_not_null('doctors', 'last_name');
+SELECT emsx_set_not_null('doctors', 'first_name');
+SELECT emsx_set_not_null('specialties', 'name');
+SELECT emsx_set_not_null('appointments', 'date');
+SELECT emsx_set_not_null('appointments', 'time');
+
+-- Un doctor (y un paciente) no puede tener dos citas activas en el mismo horario.
+-- Índices únicos parciales: las citas CANCELLED liberan el horario.
+-- Son la garantía final frente a reservas concurrentes (el servicio verifica antes).
+CREATE UNIQUE INDEX IF NOT EXISTS uq_appointments_doctor_slot
+    ON appointments (doctor_id, date, time) WHERE status IS NULL OR status <> 'CANCELLED';
+CREATE UNIQUE INDEX IF NOT EXISTS uq_appointments_patient_slot
+    ON appointments (patient_id, date, time) WHERE status IS NULL OR status <> 'CANCELLED';
+
+-- Acumulados del dashboard (/api/dashboard/stats), mantenidos por DashboardCounterListener.
+-- metric + bucket: p.ej. ('appointments_by_status', 'SCHEDULED'), bucket '' = total.
+CREATE TABLE IF NOT EXISTS dashboard_counters (
+    metric VARCHAR(64)  NOT NULL,
+    bucket VARCHAR(64)  NOT NULL,
+    value  BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (metric, bucket)
+);
+
+-- Carga inicial a partir de los datos existentes: sólo cuando la tabla está vacía
+-- (primer arranque); desde ahí los contadores se actualizan en cada escritura.
+INSERT INTO dashboard_counters (metric, bucket, value)
+SELECT metric, bucket, value FROM (
+    SELECT 'patients' AS metric, '' AS bucket, count(*) AS value FROM patients
+    UNION ALL
+    SELECT 'doctors', '', count(*) FROM doctors
+    UNION ALL
+    SELECT 'appointments', '', count(*) FROM appointments
+    UNION ALL
+    SELECT 'appointments_by_status', COALESCE(status, 'NONE'), count(*) FROM appointments GROUP BY COALESCE(status, 'NONE')
+    UNION ALL
+    SELECT 'appointments_by_doctor', CAST(doctor_id AS VARCHAR), count(*) FROM appointments GROUP BY doctor_id
+    UNION ALL
+    SELECT 'appointments_by_specialty', CAST(d.specialty_id AS VARCHAR), count(*)
+    FROM appointments a JOIN doctors d ON d.id = a.doctor_id
+    WHERE d.specialty_id IS NOT NULL GROUP BY d.specialty_id
+    UNION ALL
+    SELECT 'appointments_by_day', to_char(date, 'YYYY-MM-DD'), count(*) FROM appointments WHERE date IS NOT NULL GROUP BY date
+) AS initial
+WHERE NOT EXISTS (SELECT 1 FROM dashboard_counters);
+
+-- 🔹 Secuencia de pacientes (ids pooled, incremento 50): alineada con los ids ya existentes
+-- (tablas creadas antes con IDENTITY). Sólo avanza, nunca retrocede.
+SELECT setval('patients_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM patients), (SELECT last_value FROM patients_seq)));
+
+-- Versión por tabla (ETag de los GET condicionales), incrementada por TableVersionListener
+-- en la misma transacción que cada escritura JPA (y por lote en la importación de pacientes).
+CREATE TABLE IF NOT EXISTS table_versions (
+    table_name VARCHAR(64) PRIMARY KEY,
+    version    BIGINT      NOT NULL
+);
+
+-- Versión inicial = instante actual (ms), sólo para las tablas que aún no la tienen:
+-- un table_versions vacío o recreado no repite ETags que los clientes ya guardaron.
+INSERT INTO table_versions (table_name, version)
+SELECT t.table_name, CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000 AS BIGINT)
+FROM (VALUES ('patients'), ('doctors'), ('specialties'), ('appointments')) AS t (table_name)
+ON CONFLICT (table_name) DO NOTHING;
+
+-- Respuestas guardadas por Idempotency-Key (IdempotencyFilter). status NULL = primera solicitud
+-- en curso; las filas vencidas (idempotency.ttl) se eliminan periódicamente.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(1024)            PRIMARY KEY,
+    fingerprint     VARCHAR(64)              NOT NULL,
+    status          INTEGER,
+    content_type    VARCHAR(255),
+    body            BYTEA,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+-- Bajas de las entidades sincronizables (SyncTombstoneListener) para /api/sync. change_txid es la
+-- transacción del DELETE (misma columna que en las tablas: ver ChangeTracking); las filas más viejas
+-- que sync.tombstone-retention se eliminan y los tokens anteriores reciben una sincronización completa.
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    id          BIGSERIAL                PRIMARY KEY,
+    collection  VARCHAR(32)              NOT NULL,
+    entity_id   BIGINT                   NOT NULL,
+    change_txid BIGINT                   NOT NULL DEFAULT (pg_current_xact_id()::text::bigint),
+    deleted_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_change_txid ON sync_tombstones (change_txid);
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_deleted_at ON sync_tombstones (deleted_at);
+
+-- change_txid (ver ChangeTracking): la transacción que escribió la fila, puesta por la BD en cada
+-- INSERT/UPDATE, sea de JPA o de JDBC. Cuerpos entre comillas simples (el separador de scripts
+-- de Spring no reconoce $$).
+CREATE OR REPLACE FUNCTION emsx_set_change_txid() RETURNS trigger LANGUAGE plpgsql AS
+'BEGIN
+    NEW.change_txid := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END';
+
+CREATE OR REPLACE TRIGGER trg_patients_change_txid BEFORE INSERT OR UPDATE ON patients
+    FOR EACH ROW EXECUTE FUNCTION emsx_set_change_txid();
+CREATE OR REPLACE TRIGGER trg_doctors_change_txid BEFORE INSERT OR UPDATE ON doctors
+    FOR EACH ROW EXECUTE FUNCTION emsx_set_change_txid();
+CREATE OR REPLACE TRIGGER trg_specialties_change_txid BEFORE INSERT OR UPDATE ON specialties
+    FOR EACH ROW EXECUTE FUNCTION emsx_set_change_txid();
+CREATE OR REPLACE TRIGGER trg_appointments_change_txid BEFORE INSERT OR UPDATE ON appointments
+    FOR EACH ROW EXECUTE FUNCTION emsx_set_change_txid();
+CREATE OR REPLACE TRIGGER trg_consultations_change_txid BEFORE INSERT OR UPDATE ON consultations
+    FOR EACH ROW EXECUTE FUNCTION emsx_set_change_txid();
+CREATE OR REPLACE TRIGGER trg_medical_records_change_txid BEFORE INSERT OR UPDATE ON medical_records
+    FOR EACH ROW EXECUTE FUNCTION emsx_set_change_txid();
+
+-- Los DTO de citas, historias y doctores muestran nombres de otra tabla: si el nombre cambia,
+-- las filas hijas se marcan en la misma transacción. /api/sync filtra entonces sólo por el
+-- change_txid de cada tabla (índice idx_<tabla>_change_txid), sin joins en el WHERE.
+CREATE OR REPLACE FUNCTION emsx_touch_patient_children() RETURNS trigger LANGUAGE plpgsql AS
+'BEGIN
+    UPDATE appointments SET change_txid = pg_current_xact_id()::text::bigint WHERE patient_id = NEW.id;
+    UPDATE medical_records SET change_txid = pg_current_xact_id()::text::bigint WHERE patient_id = NEW.id;
+    RETURN NULL;
+END';
+
+CREATE OR REPLACE FUNCTION emsx_touch_doctor_children() RETURNS trigger LANGUAGE plpgsql AS
+'BEGIN
+    UPDATE appointments SET change_txid = pg_current_xact_id()::text::bigint WHERE doctor_id = NEW.id;
+    RETURN NULL;
+END';
+
+CREATE OR REPLACE FUNCTION emsx_touch_specialty_children() RETURNS trigger LANGUAGE plpgsql AS
+'BEGIN
+    UPDATE doctors SET change_txid = pg_current_xact_id()::text::bigint WHERE specialty_id = NEW.id;
+    RETURN NULL;
+END';
+
+CREATE OR REPLACE TRIGGER trg_patients_touch_children AFTER UPDATE ON patients
+    FOR EACH ROW WHEN (OLD.first_name IS DISTINCT FROM NEW.first_name OR OLD.last_name IS DISTINCT FROM NEW.last_name)
+    EXECUTE FUNCTION emsx_touch_patient_children();
+CREATE OR REPLACE TRIGGER trg_doctors_touch_children AFTER UPDATE ON doctors
+    FOR EACH ROW WHEN (OLD.first_name IS DISTINCT FROM NEW.first_name OR OLD.last_name IS DISTINCT FROM NEW.last_name)
+    EXECUTE FUNCTION emsx_touch_doctor_children();
+CREATE OR REPLACE TRIGGER trg_specialties_touch_children AFTER UPDATE ON specialties
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION emsx_touch_specialty_children();
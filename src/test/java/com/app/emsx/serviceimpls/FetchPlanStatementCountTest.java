@@ -0,0 +1,191 @@
+package com.app.emsx.serviceimpls;
+
+import com.app.emsx.common.fields.FieldsQuery;
+import com.app.emsx.common.pagination.CursorPage;
+import com.app.emsx.common.pagination.PageQuery;
+import com.app.emsx.dtos.appointment.AppointmentCalendarQuery;
+import com.app.emsx.dtos.appointment.AppointmentRequest;
+import com.app.emsx.dtos.appointment.AppointmentResponse;
+import com.app.emsx.dtos.consultation.ConsultationRequest;
+import com.app.emsx.dtos.consultation.ConsultationResponse;
+import com.app.emsx.dtos.doctor.DoctorRequest;
+import com.app.emsx.dtos.doctor.DoctorResponse;
+import com.app.emsx.dtos.doctor.DoctorSearchCriteria;
+import com.app.emsx.dtos.medicalrecord.MedicalRecordRequest;
+import com.app.emsx.dtos.medicalrecord.MedicalRecordResponse;
+import com.app.emsx.dtos.patient.PatientRequest;
+import com.app.emsx.dtos.patient.PatientResponse;
+import com.app.emsx.dtos.patient.PatientSearchCriteria;
+import com.app.emsx.dtos.specialty.SpecialtyRequest;
+import com.app.emsx.dtos.specialty.SpecialtyResponse;
+import com.app.emsx.services.AppointmentService;
+import com.app.emsx.services.ConsultationService;
+import com.app.emsx.services.DoctorService;
+import com.app.emsx.services.MedicalRecordService;
+import com.app.emsx.services.PatientService;
+import com.app.emsx.services.SpecialtyService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.app.emsx.common.sqlbudget.SqlStatementCounter.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * FetchPlanStatementCountTest
+ * -----------------------------------------------------
+ * ✔ Fija cuántas sentencias SQL emiten las lecturas tras el cambio a asociaciones LAZY:
+ *   findById y los listados de cada entidad = una sola consulta (sin N+1)
+ * ✔ Varias filas con padres distintos: un N+1 se vería como una sentencia por fila
+ * ✔ PostgreSQL embebido (mismo esquema, triggers e índices que producción)
+ *
+ * Con Tomcat levantado (RANDOM_PORT), como en producción: registra el protocolo classpath:
+ * que usa hibernate.javax.cache.uri antes de que se cree el EntityManagerFactory.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.task.scheduling.enabled=false",
+        "logging.level.root=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FetchPlanStatementCountTest {
+
+    private static final int ROWS = 3;
+    private static final FieldsQuery ALL_FIELDS = new FieldsQuery();
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired private SpecialtyService specialtyService;
+    @Autowired private DoctorService doctorService;
+    @Autowired private PatientService patientService;
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private MedicalRecordService medicalRecordService;
+    @Autowired private ConsultationService consultationService;
+
+    private final List<Long> doctorIds = new ArrayList<>();
+    private final List<Long> patientIds = new ArrayList<>();
+    private final List<Long> appointmentIds = new ArrayList<>();
+    private final List<Long> medicalRecordIds = new ArrayList<>();
+    private final List<Long> consultationIds = new ArrayList<>();
+    private Long specialtyId;
+    private LocalDate day;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+            postgres = null;
+        }
+    }
+
+    // 🔹 Datos: cada cita, historia y consulta apunta a un paciente / doctor distinto
+    @BeforeAll
+    void seed() {
+        day = LocalDate.now().plusDays(7);
+        SpecialtyResponse specialty = specialtyService.create(SpecialtyRequest.builder()
+                .name("Cardiología").description("Corazón").build());
+        specialtyId = specialty.getId();
+
+        for (int i = 0; i < ROWS; i++) {
+            DoctorResponse doctor = doctorService.create(DoctorRequest.builder()
+                    .firstName("Doctor" + (char) ('A' + i)).lastName("Prueba")
+                    .email("doctor" + i + "@clinica.test").phone("7000000" + i)
+                    .specialtyId(specialtyId).build());
+            doctorIds.add(doctor.getId());
+
+            PatientResponse patient = patientService.create(PatientRequest.builder()
+                    .firstName("Paciente" + (char) ('A' + i)).lastName("Prueba")
+                    .email("paciente" + i + "@clinica.test").phone("8000000" + i)
+                    .dateOfBirth("1990-01-0" + (i + 1)).build());
+            patientIds.add(patient.getId());
+
+            AppointmentResponse appointment = appointmentService.create(AppointmentRequest.builder()
+                    .patientId(patient.getId()).doctorId(doctor.getId())
+                    .date(day.toString()).time(String.format("%02d:00", 8 + i)).reason("Control").build());
+            appointmentIds.add(appointment.getId());
+
+            MedicalRecordResponse record = medicalRecordService.create(MedicalRecordRequest.builder()
+                    .patientId(patient.getId()).diagnosis("Diagnóstico " + i).build());
+            medicalRecordIds.add(record.getId());
+
+            ConsultationResponse consultation = consultationService.create(ConsultationRequest.builder()
+                    .appointmentId(appointment.getId()).medicalRecordId(record.getId())
+                    .notes("Notas " + i).build());
+            consultationIds.add(consultation.getId());
+        }
+    }
+
+    @Test
+    void patientReadsUseOneStatement() {
+        assertMaxStatements(1, () -> patientService.findById(patientIds.get(0), ALL_FIELDS));
+        assertPage(assertMaxStatements(1, () -> patientService.findPage(new PageQuery(), ALL_FIELDS)));
+        assertPage(assertMaxStatements(1, () -> patientService.search(
+                PatientSearchCriteria.builder().name("Paciente").build(), new PageQuery(), ALL_FIELDS)));
+        assertMaxStatements(1, () -> patientService.streamAll(ALL_FIELDS, patient -> { }));
+    }
+
+    @Test
+    void doctorReadsUseOneStatement() {
+        assertMaxStatements(1, () -> doctorService.findById(doctorIds.get(0), ALL_FIELDS));
+        assertPage(assertMaxStatements(1, () -> doctorService.findPage(new PageQuery(), ALL_FIELDS)));
+        assertPage(assertMaxStatements(1, () -> doctorService.search(
+                DoctorSearchCriteria.builder().specialtyId(specialtyId).build(), new PageQuery(), ALL_FIELDS)));
+        assertMaxStatements(1, () -> doctorService.streamAll(ALL_FIELDS, doctor -> { }));
+    }
+
+    @Test
+    void appointmentReadsUseOneStatement() {
+        assertMaxStatements(1, () -> appointmentService.findById(appointmentIds.get(0), ALL_FIELDS));
+        assertPage(assertMaxStatements(1, () -> appointmentService.findPage(new PageQuery(), ALL_FIELDS)));
+        List<AppointmentResponse> calendar = assertMaxStatements(1, () -> appointmentService.calendar(
+                AppointmentCalendarQuery.builder().from(day.toString()).to(day.toString()).build(), ALL_FIELDS));
+        assertEquals(ROWS, calendar.size());
+        assertMaxStatements(1, () -> appointmentService.streamAll(ALL_FIELDS, appointment -> { }));
+    }
+
+    @Test
+    void medicalRecordReadsUseOneStatement() {
+        assertMaxStatements(1, () -> medicalRecordService.findById(medicalRecordIds.get(0), ALL_FIELDS));
+        assertPage(assertMaxStatements(1, () -> medicalRecordService.findPage(new PageQuery(), ALL_FIELDS)));
+        assertMaxStatements(1, () -> medicalRecordService.streamAll(ALL_FIELDS, record -> { }));
+    }
+
+    @Test
+    void consultationReadsUseOneStatement() {
+        assertMaxStatements(1, () -> consultationService.findById(consultationIds.get(0), ALL_FIELDS));
+        assertPage(assertMaxStatements(1, () -> consultationService.findPage(new PageQuery(), ALL_FIELDS)));
+        assertMaxStatements(1, () -> consultationService.streamAll(ALL_FIELDS, consultation -> { }));
+    }
+
+    @Test
+    void specialtyReadsUseOneStatement() {
+        assertMaxStatements(1, () -> specialtyService.findById(specialtyId, ALL_FIELDS));
+        assertMaxStatements(1, () -> specialtyService.findPage(new PageQuery(), ALL_FIELDS));
+        assertMaxStatements(1, () -> specialtyService.streamAll(ALL_FIELDS, specialty -> { }));
+    }
+
+    private static void assertPage(CursorPage<?> page) {
+        assertEquals(ROWS, page.getItems().size());
+    }
+}